@@ -16,41 +16,32 @@
 
 package com.epam.digital.data.platform.notification;
 
-import com.epam.digital.data.platform.notification.properties.AppProperties;
-import com.epam.digital.data.platform.notification.service.NotificationDirectoryLoader;
-import org.apache.commons.io.FileUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Qualifier;
+import com.epam.digital.data.platform.notification.service.NotificationPublishingService;
+import com.epam.digital.data.platform.notification.service.PublishServer;
+import com.epam.digital.data.platform.notification.service.PublishingRequest;
+import com.epam.digital.data.platform.notification.service.TemplateShard;
+import com.epam.digital.data.platform.notification.service.TemplateWatcher;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-import java.io.File;
-
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
-
+@Slf4j
 @SpringBootApplication
 public class NotificationTemplatePublisherApplication implements ApplicationRunner {
 
-  private final Logger log = LoggerFactory.getLogger(NotificationTemplatePublisherApplication.class);
-
-  private final AppProperties appProperties;
-
-  private final Map<String, NotificationDirectoryLoader> templateDirLoaders;
+  private final NotificationPublishingService publishingService;
+  private final TemplateWatcher templateWatcher;
+  private final PublishServer publishServer;
 
   public NotificationTemplatePublisherApplication(
-      AppProperties appProperties,
-      @Qualifier("templateDirLoaders")
-          Map<String, NotificationDirectoryLoader> templateDirLoaders) {
-    this.appProperties = appProperties;
-    this.templateDirLoaders = templateDirLoaders;
+      NotificationPublishingService publishingService, TemplateWatcher templateWatcher,
+      PublishServer publishServer) {
+    this.publishingService = publishingService;
+    this.templateWatcher = templateWatcher;
+    this.publishServer = publishServer;
   }
 
   public static void main(String[] args) {
@@ -59,47 +50,41 @@ public class NotificationTemplatePublisherApplication implements ApplicationRunn
 
 
   @Override
-  public void run(ApplicationArguments args) {
+  public void run(ApplicationArguments args) throws IOException {
+    var watch = args.containsOption("watch");
+    var server = args.containsOption("server");
     if (args.containsOption("notification_templates")) {
-      getHandleNotifications();
+      try {
+        publishingService.publish(PublishingRequest.builder()
+            .resume(args.containsOption("resume"))
+            .shard(getShard(args))
+            .build());
+      } catch (RuntimeException e) {
+        if (!watch && !server) {
+          throw e;
+        }
+        log.error("Initial publishing failed, keeping the application running: {}",
+            e.getMessage());
+      }
     }
-  }
-
-  private void getHandleNotifications() {
-    var channelDirs = getChannelDirectories();
-    for (File channelDir: channelDirs) {
-      log.info("Processing of directory {}", channelDir);
-      processChannelTemplates(channelDir);
+    if (watch && server) {
+      publishServer.start();
+      templateWatcher.watch();
+      publishServer.stop();
+    } else if (watch) {
+      templateWatcher.watch();
+    } else if (server) {
+      publishServer.serve();
     }
   }
 
-  private List<File> getChannelDirectories() {
-    var rootDir = FileUtils.getFile(appProperties.getNotificationsDirectoryName());
-    return Optional.ofNullable(rootDir.listFiles())
-        .map(Arrays::asList)
-        .orElseGet(
-            () -> {
-              log.error("Directory {} does not exist", rootDir);
-              return Collections.emptyList();
-            });
-  }
-
-  private void processChannelTemplates(File channelDir) {
-    if (!channelDir.isDirectory()) {
-      return;
-    }
-    var channelName = channelDir.toPath().getFileName().toString();
-    var channelTemplateLoader = templateDirLoaders.get(channelName);
-    if (channelTemplateLoader == null) {
-      log.warn("No template loader for channel {}", channelName);
-      return;
-    }
-    var templateDirectories = Arrays.stream(Optional.ofNullable(channelDir.listFiles())
-            .orElse(new File[] {}))
-            .filter(File::isDirectory)
-            .collect(Collectors.toList());
-    for (File templateDir : templateDirectories) {
-      channelTemplateLoader.loadDir(templateDir);
-    }
+  /**
+   * @return shard of the {@code --shard=index/count} argument, {@code null} for the configured
+   * one
+   */
+  private TemplateShard getShard(ApplicationArguments args) {
+    var values = args.getOptionValues("shard");
+    return values == null || values.isEmpty() ? null
+        : TemplateShard.parse(values.get(values.size() - 1));
   }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.config;
+
+import com.epam.digital.data.platform.notification.feign.AdaptiveConcurrencyClient;
+import com.epam.digital.data.platform.notification.feign.GzipRequestInterceptor;
+import com.epam.digital.data.platform.notification.feign.Http2Client;
+import com.epam.digital.data.platform.notification.feign.NotificationServiceRetryer;
+import com.epam.digital.data.platform.notification.feign.RateLimitingClient;
+import com.epam.digital.data.platform.notification.feign.RequestCompressingClient;
+import com.epam.digital.data.platform.notification.feign.RetryableStatusErrorDecoder;
+import com.epam.digital.data.platform.notification.feign.TokenBucket;
+import com.epam.digital.data.platform.notification.properties.NotificationServiceClientProperties;
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import feign.Client;
+import feign.Request;
+import feign.Retryer;
+import feign.codec.ErrorDecoder;
+import feign.httpclient.ApacheHttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class NotificationServiceClientConfig {
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notification-service.client.compression", name = "enabled",
+      havingValue = "true")
+  public GzipRequestInterceptor gzipRequestInterceptor(
+      NotificationServiceClientProperties clientProperties) {
+    return new GzipRequestInterceptor(
+        clientProperties.getCompression().getMinRequestSize().toBytes());
+  }
+
+  @Bean
+  public Request.Options feignRequestOptions(NotificationServiceClientProperties clientProperties) {
+    return new Request.Options(
+        clientProperties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS,
+        clientProperties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS, true);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notification-service.client.retry", name = "enabled",
+      havingValue = "true", matchIfMissing = true)
+  public Retryer notificationServiceRetryer(NotificationServiceClientProperties clientProperties,
+      PublishingStatistics publishingStatistics) {
+    return new NotificationServiceRetryer(clientProperties.getRetry(), publishingStatistics);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notification-service.client.retry", name = "enabled",
+      havingValue = "true", matchIfMissing = true)
+  public ErrorDecoder retryableStatusErrorDecoder(
+      NotificationServiceClientProperties clientProperties) {
+    return new RetryableStatusErrorDecoder(clientProperties.getRetry().getRetryableStatuses());
+  }
+
+  @Bean(destroyMethod = "close")
+  @ConditionalOnProperty(prefix = "notification-service.client", name = "http-client",
+      havingValue = "pooled", matchIfMissing = true)
+  public CloseableHttpClient notificationServiceHttpClient(
+      NotificationServiceClientProperties clientProperties) {
+    var connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(clientProperties.getMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(clientProperties.getMaxConnectionsPerRoute());
+    var keepAliveMillis = clientProperties.getKeepAlive().toMillis();
+    return HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setKeepAliveStrategy((response, context) -> {
+          var serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+              .getKeepAliveDuration(response, context);
+          return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis)
+              : keepAliveMillis;
+        })
+        .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectTimeout((int) clientProperties.getConnectTimeout().toMillis())
+            .setSocketTimeout((int) clientProperties.getReadTimeout().toMillis())
+            .build())
+        .disableCookieManagement()
+        .build();
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notification-service.client", name = "http-client",
+      havingValue = "pooled", matchIfMissing = true)
+  public Client pooledFeignClient(CloseableHttpClient notificationServiceHttpClient,
+      NotificationServiceClientProperties clientProperties,
+      PublishingStatistics publishingStatistics) {
+    return decorate(new ApacheHttpClient(notificationServiceHttpClient), true, clientProperties,
+        publishingStatistics);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notification-service.client", name = "http-client",
+      havingValue = "http2")
+  public Client http2FeignClient(NotificationServiceClientProperties clientProperties,
+      PublishingStatistics publishingStatistics) {
+    var httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(clientProperties.getConnectTimeout())
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .build();
+    return decorate(new Http2Client(httpClient), true, clientProperties, publishingStatistics);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "notification-service.client", name = "http-client",
+      havingValue = "default")
+  public Client defaultFeignClient(NotificationServiceClientProperties clientProperties,
+      PublishingStatistics publishingStatistics) {
+    return decorate(new Client.Default(null, null), false, clientProperties,
+        publishingStatistics);
+  }
+
+  /**
+   * Wraps the transport client with the configured request policies. Compression is applied
+   * outside the rate limiter so that limits count the bytes actually sent, unless the transport
+   * compresses the body by itself. The adaptive concurrency limit wraps the transport directly,
+   * so that time spent in the rate limiter is not mistaken for service latency.
+   */
+  private Client decorate(Client transport, boolean compressRequests,
+      NotificationServiceClientProperties clientProperties,
+      PublishingStatistics publishingStatistics) {
+    var client = transport;
+    if (clientProperties.getAdaptiveConcurrency().isEnabled()) {
+      client = new AdaptiveConcurrencyClient(client, clientProperties.getAdaptiveConcurrency(),
+          clientProperties.getRetry().getRetryableStatuses(), publishingStatistics);
+    }
+    var rateLimit = clientProperties.getRateLimit();
+    var bytesPerSecond = rateLimit.getBytesPerSecond().toBytes();
+    if (rateLimit.getRequestsPerSecond() > 0 || bytesPerSecond > 0) {
+      client = new RateLimitingClient(client,
+          rateLimit.getRequestsPerSecond() > 0 ? new TokenBucket(rateLimit.getRequestsPerSecond(),
+              Math.max(1, rateLimit.getRequestsPerSecond())) : null,
+          bytesPerSecond > 0 ? new TokenBucket(bytesPerSecond, bytesPerSecond) : null,
+          publishingStatistics);
+    }
+    if (compressRequests) {
+      client = new RequestCompressingClient(client);
+    }
+    return client;
+  }
+}
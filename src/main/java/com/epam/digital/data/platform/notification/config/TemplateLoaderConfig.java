@@ -17,10 +17,26 @@
 package com.epam.digital.data.platform.notification.config;
 
 import com.epam.digital.data.platform.notification.client.NotificationTemplateRestClient;
+import com.epam.digital.data.platform.notification.feign.BatchingTemplateRestClient;
+import com.epam.digital.data.platform.notification.feign.NotificationTemplateBatchClient;
+import com.epam.digital.data.platform.notification.feign.NotificationTemplateClient;
+import com.epam.digital.data.platform.notification.properties.NotificationServiceClientProperties;
+import com.epam.digital.data.platform.notification.properties.EmailTemplateProperties;
+import com.epam.digital.data.platform.notification.properties.EmailTemplateProperties.HtmlProcessing;
+import com.epam.digital.data.platform.notification.properties.PublishingProperties;
+import com.epam.digital.data.platform.notification.service.DataUriEncoder;
 import com.epam.digital.data.platform.notification.service.DiiaNotificationLoader;
+import com.epam.digital.data.platform.notification.service.EmailContentMinifier;
+import com.epam.digital.data.platform.notification.service.EmailImageEmbedder;
 import com.epam.digital.data.platform.notification.service.EmailNotificationLoader;
+import com.epam.digital.data.platform.notification.service.EmailStylesheetEmbedder;
+import com.epam.digital.data.platform.notification.service.EmbeddedImageCache;
+import com.epam.digital.data.platform.notification.service.ImageOptimizer;
 import com.epam.digital.data.platform.notification.service.InboxNotificationLoader;
 import com.epam.digital.data.platform.notification.service.NotificationDirectoryLoader;
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import com.epam.digital.data.platform.notification.service.StreamingHtmlRewriter;
+import com.epam.digital.data.platform.notification.service.UnusedCssPruner;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
@@ -38,18 +54,41 @@ import static com.epam.digital.data.platform.notification.service.NotificationCh
 import static com.epam.digital.data.platform.notification.service.NotificationChannel.INBOX;
 
 @Configuration
-@EnableFeignClients(clients = NotificationTemplateRestClient.class)
+@EnableFeignClients(clients = {NotificationTemplateClient.class,
+    NotificationTemplateBatchClient.class})
 public class TemplateLoaderConfig {
 
   @Bean
   public Map<String, NotificationDirectoryLoader> templateDirLoaders(
-      NotificationTemplateRestClient restClient,
-      @Qualifier("yamlMapper") ObjectMapper yamlMapper) {
+      NotificationTemplateRestClient notificationTemplateRestClient,
+      NotificationTemplateBatchClient batchClient,
+      @Qualifier("yamlMapper") ObjectMapper yamlMapper,
+      EmailImageEmbedder emailImageEmbedder,
+      EmailStylesheetEmbedder emailStylesheetEmbedder,
+      EmailTemplateProperties emailTemplateProperties,
+      NotificationServiceClientProperties clientProperties,
+      PublishingProperties publishingProperties,
+      PublishingStatistics publishingStatistics) {
+    var streaming = emailTemplateProperties.getHtmlProcessing() == HtmlProcessing.STREAMING;
+    if (streaming && (emailTemplateProperties.isMinify()
+        || emailTemplateProperties.getCssPruning().isEnabled())) {
+      throw new IllegalStateException(
+          "Streaming HTML processing supports neither minification nor CSS pruning");
+    }
+    var batch = clientProperties.getBatch();
+    var restClient = batch.isEnabled() && publishingProperties.getParallelism() > 1
+        ? new BatchingTemplateRestClient(notificationTemplateRestClient, batchClient, batch,
+            publishingStatistics)
+        : notificationTemplateRestClient;
     return Map.of(
         EMAIL.getChannelName(),
         new EmailNotificationLoader(
             restClient,
-            yamlMapper),
+            yamlMapper,
+            emailImageEmbedder,
+            emailStylesheetEmbedder,
+            emailTemplateProperties.isMinify() ? new EmailContentMinifier() : null,
+            streaming ? new StreamingHtmlRewriter() : null),
         DIIA.getChannelName(),
         new DiiaNotificationLoader(
             restClient,
@@ -61,6 +100,33 @@ public class TemplateLoaderConfig {
         ));
   }
 
+  @Bean
+  public EmailImageEmbedder emailImageEmbedder(EmailTemplateProperties emailTemplateProperties,
+      PublishingStatistics publishingStatistics) {
+    var imageCache = new EmbeddedImageCache(
+        emailTemplateProperties.getImageCache().getMaxSize().toBytes(), publishingStatistics);
+    var dataUriEncoder = new DataUriEncoder(emailTemplateProperties.getMaxAssetSize().toBytes());
+    var optimization = emailTemplateProperties.getImageOptimization();
+    var imageOptimizer = optimization.isEnabled()
+        ? new ImageOptimizer(optimization.getMaxWidth(), optimization.getMaxHeight(),
+            optimization.getJpegQuality())
+        : null;
+    return new EmailImageEmbedder(imageCache, dataUriEncoder, imageOptimizer,
+        publishingStatistics);
+  }
+
+  @Bean
+  public EmailStylesheetEmbedder emailStylesheetEmbedder(
+      EmailTemplateProperties emailTemplateProperties,
+      PublishingStatistics publishingStatistics) {
+    var cssPruning = emailTemplateProperties.getCssPruning();
+    var cssPruner = cssPruning.isEnabled()
+        ? new UnusedCssPruner(cssPruning.getAllowList(), publishingStatistics)
+        : null;
+    return new EmailStylesheetEmbedder(cssPruner,
+        emailTemplateProperties.getStylesheetCache().getMaxSize().toBytes(), publishingStatistics);
+  }
+
   @Bean
   @Primary
   public ObjectMapper objectMapper() {
@@ -15,7 +15,7 @@
  */
 package com.epam.digital.data.platform.notification.dto;
 
-import java.io.File;
+import com.epam.digital.data.platform.notification.service.TemplateFile;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -25,5 +25,8 @@ public class NotificationDto {
 
   private String channel;
   private String content;
-  private File templateMetadataFile;
+  /**
+   * Metadata file of the template, {@code null} when the template has no metadata.
+   */
+  private TemplateFile templateMetadataFile;
 }
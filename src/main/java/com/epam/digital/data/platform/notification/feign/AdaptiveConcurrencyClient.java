@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.properties.NotificationServiceClientProperties;
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limits the number of requests in flight with an AIMD (additive increase, multiplicative
+ * decrease) algorithm. The limit grows by one per round trip while latency stays close to the
+ * lowest observed one and shrinks when latency rises above the tolerance or the server answers
+ * with an overload status or fails. Callers above the limit wait for a free slot.
+ *
+ * <p>Templates range from a few kilobytes to megabytes of embedded images, so the lowest latency
+ * is tracked per request body size bucket: a large upload is compared with earlier large
+ * uploads, not with the fastest small one.
+ */
+@Slf4j
+public class AdaptiveConcurrencyClient implements Client {
+
+  public static final String LIMIT_GAUGE = "notification-service.concurrency-limit";
+  public static final String DECREASES_COUNTER = "notification-service.concurrency-limit-decreases";
+
+  /**
+   * Weight of a new sample when the latency baseline drifts upwards, so that the baseline follows
+   * a lasting change of the service latency instead of sticking to a single fast outlier. Only
+   * samples within the tolerance drift it, or any sample once the limit is at its minimum and
+   * the latency can no longer be caused by the requests in flight; letting congested samples in
+   * would raise the baseline together with the congestion it is meant to detect.
+   */
+  private static final double BASELINE_DRIFT = 0.01;
+  /**
+   * Body size buckets growing by a factor of four from 1 KB: below 1 KB, below 4 KB and so on,
+   * the last one holding everything from 4 MB up.
+   */
+  private static final int SIZE_BUCKETS = 8;
+
+  private final Client delegate;
+  private final NotificationServiceClientProperties.AdaptiveConcurrency settings;
+  private final Set<Integer> overloadStatuses;
+  private final PublishingStatistics publishingStatistics;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition slotReleased = lock.newCondition();
+  private double limit;
+  private int inFlight;
+  private final double[] baselineNanos = new double[SIZE_BUCKETS];
+  private long decreasedAt = Long.MIN_VALUE;
+
+  public AdaptiveConcurrencyClient(Client delegate,
+      NotificationServiceClientProperties.AdaptiveConcurrency settings,
+      Set<Integer> overloadStatuses, PublishingStatistics publishingStatistics) {
+    this.delegate = delegate;
+    this.settings = settings;
+    this.overloadStatuses = overloadStatuses;
+    this.publishingStatistics = publishingStatistics;
+    this.limit = settings.getInitialLimit();
+    Arrays.fill(baselineNanos, Double.MAX_VALUE);
+    publishingStatistics.setGauge(LIMIT_GAUGE, settings.getInitialLimit());
+  }
+
+  @Override
+  public Response execute(Request request, Request.Options options) throws IOException {
+    var acquiringSince = System.nanoTime();
+    acquire();
+    var startedAt = System.nanoTime();
+    publishingStatistics.recordWait(startedAt - acquiringSince);
+    var overloaded = true;
+    try {
+      var response = delegate.execute(request, options);
+      overloaded = overloadStatuses.contains(response.status());
+      return response;
+    } finally {
+      release(startedAt, System.nanoTime() - startedAt, sizeBucket(request.body()), overloaded);
+    }
+  }
+
+  public int getLimit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void acquire() throws InterruptedIOException {
+    lock.lock();
+    try {
+      while (inFlight >= (int) limit) {
+        slotReleased.await();
+      }
+      inFlight++;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a concurrency slot");
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  static int sizeBucket(byte[] body) {
+    var kilobytes = body == null ? 0 : body.length / 1024;
+    if (kilobytes == 0) {
+      return 0;
+    }
+    var log2 = 31 - Integer.numberOfLeadingZeros(kilobytes);
+    return Math.min(SIZE_BUCKETS - 1, log2 / 2 + 1);
+  }
+
+  private void release(long startedAt, long latencyNanos, int sizeBucket, boolean overloaded) {
+    lock.lock();
+    try {
+      inFlight--;
+      var previousLimit = (int) limit;
+      var baseline = baselineNanos[sizeBucket];
+      var congested = overloaded || latencyNanos > baseline * settings.getLatencyTolerance();
+      if (latencyNanos < baseline && !overloaded) {
+        baselineNanos[sizeBucket] = latencyNanos;
+      } else if (!overloaded && (!congested || previousLimit <= settings.getMinLimit())) {
+        baselineNanos[sizeBucket] += (latencyNanos - baseline) * BASELINE_DRIFT;
+      }
+      if (congested) {
+        // requests started before the last decrease reflect the old limit, react once per window
+        if (startedAt > decreasedAt) {
+          limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+          decreasedAt = System.nanoTime();
+          publishingStatistics.increment(DECREASES_COUNTER);
+        }
+      } else if (inFlight + 1 >= previousLimit) {
+        limit = Math.min(settings.getMaxLimit(), limit + 1 / limit);
+      }
+      if ((int) limit != previousLimit) {
+        log.debug("Concurrency limit changed from {} to {}", previousLimit, (int) limit);
+        publishingStatistics.setGauge(LIMIT_GAUGE, (int) limit);
+      }
+      slotReleased.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
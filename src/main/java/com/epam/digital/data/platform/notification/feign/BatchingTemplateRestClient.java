@@ -0,0 +1,198 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.client.NotificationTemplateRestClient;
+import com.epam.digital.data.platform.notification.dto.NotificationTemplateAttributeDto;
+import com.epam.digital.data.platform.notification.dto.NotificationTemplateBatchItemDto;
+import com.epam.digital.data.platform.notification.dto.SaveNotificationTemplateInputDto;
+import com.epam.digital.data.platform.notification.properties.NotificationServiceClientProperties;
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import feign.FeignException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Groups small templates saved concurrently by the publishing workers into batch requests, so
+ * that a group of templates costs one round trip instead of one per template. The first worker
+ * of a group waits up to the linger time for others to join and sends the group once it is full
+ * or the time is up, while the other workers wait for the outcome.
+ *
+ * <p>Templates above the size limit are saved one by one right away. When the notification
+ * service does not support batch saves, the templates are saved one by one from then on. When a
+ * batch fails otherwise, every worker saves its template on its own, so that failures are
+ * reported for the templates that caused them.
+ */
+@Slf4j
+public class BatchingTemplateRestClient implements NotificationTemplateRestClient {
+
+  public static final String BATCHES_COUNTER = "notification-service.batches";
+  public static final String ROUND_TRIPS_SAVED_COUNTER = "notification-service.round-trips-saved";
+
+  static final Set<Integer> UNSUPPORTED_STATUSES = Set.of(404, 405, 501);
+
+  private final NotificationTemplateRestClient delegate;
+  private final NotificationTemplateBatchClient batchClient;
+  private final NotificationServiceClientProperties.Batch settings;
+  private final PublishingStatistics publishingStatistics;
+  private final Object lock = new Object();
+  private Batch openBatch;
+  private volatile boolean batchSupported = true;
+
+  public BatchingTemplateRestClient(NotificationTemplateRestClient delegate,
+      NotificationTemplateBatchClient batchClient,
+      NotificationServiceClientProperties.Batch settings,
+      PublishingStatistics publishingStatistics) {
+    this.delegate = delegate;
+    this.batchClient = batchClient;
+    this.settings = settings;
+    this.publishingStatistics = publishingStatistics;
+  }
+
+  @Override
+  public void saveTemplate(String channel, String name,
+      SaveNotificationTemplateInputDto inputDto) {
+    var size = sizeOf(inputDto);
+    if (!batchSupported || size > settings.getMaxTemplateSize().toBytes()
+        || !saveInBatch(new NotificationTemplateBatchItemDto(channel, name, inputDto), size)) {
+      delegate.saveTemplate(channel, name, inputDto);
+    }
+  }
+
+  public boolean isBatchSupported() {
+    return batchSupported;
+  }
+
+  /**
+   * @return whether the template was saved by a batch request, otherwise it has to be saved on
+   * its own
+   */
+  private boolean saveInBatch(NotificationTemplateBatchItemDto template, long size) {
+    var saved = new CompletableFuture<Boolean>();
+    Batch batch;
+    boolean leader;
+    synchronized (lock) {
+      if (openBatch != null && openBatch.bytes + size > settings.getMaxBytes().toBytes()) {
+        close(openBatch);
+      }
+      leader = openBatch == null;
+      if (leader) {
+        openBatch = new Batch();
+      }
+      batch = openBatch;
+      batch.add(template, size, saved);
+      if (batch.templates.size() >= settings.getMaxTemplates()
+          || batch.bytes >= settings.getMaxBytes().toBytes()) {
+        close(batch);
+      }
+      if (leader) {
+        awaitClosed(batch);
+      }
+    }
+    if (leader) {
+      send(batch);
+    }
+    return saved.join();
+  }
+
+  private void awaitClosed(Batch batch) {
+    var deadline = System.nanoTime() + settings.getLinger().toNanos();
+    try {
+      var remaining = deadline - System.nanoTime();
+      while (!batch.closed && remaining > 0) {
+        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+        remaining = deadline - System.nanoTime();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      close(batch);
+    }
+  }
+
+  private void close(Batch batch) {
+    batch.closed = true;
+    if (openBatch == batch) {
+      openBatch = null;
+    }
+    lock.notifyAll();
+  }
+
+  private void send(Batch batch) {
+    var count = batch.templates.size();
+    try {
+      if (count == 1 || !batchSupported) {
+        return;
+      }
+      batchClient.saveTemplates(batch.templates);
+      publishingStatistics.increment(BATCHES_COUNTER);
+      publishingStatistics.add(ROUND_TRIPS_SAVED_COUNTER, count - 1L);
+      batch.results.forEach(result -> result.complete(true));
+    } catch (FeignException e) {
+      if (UNSUPPORTED_STATUSES.contains(e.status())) {
+        batchSupported = false;
+        log.info("Notification service does not support batch saves (status {}), saving "
+            + "templates one by one", e.status());
+      } else {
+        log.warn("Batch save of {} templates failed, saving them one by one: {}", count,
+            e.getMessage());
+      }
+    } catch (RuntimeException e) {
+      log.warn("Batch save of {} templates failed, saving them one by one: {}", count,
+          e.getMessage());
+    } finally {
+      batch.results.forEach(result -> result.complete(false));
+    }
+  }
+
+  /**
+   * Approximate size of the template in the request body, in characters of its text fields.
+   */
+  static long sizeOf(SaveNotificationTemplateInputDto inputDto) {
+    long size = length(inputDto.getTitle()) + length(inputDto.getContent());
+    if (inputDto.getAttributes() != null) {
+      for (NotificationTemplateAttributeDto attribute : inputDto.getAttributes()) {
+        size += length(attribute.getName()) + length(attribute.getValue());
+      }
+    }
+    return size;
+  }
+
+  private static int length(String value) {
+    return value == null ? 0 : value.length();
+  }
+
+  private static class Batch {
+
+    private final List<NotificationTemplateBatchItemDto> templates = new ArrayList<>();
+    private final List<CompletableFuture<Boolean>> results = new ArrayList<>();
+    private long bytes;
+    private boolean closed;
+
+    private void add(NotificationTemplateBatchItemDto template, long size,
+        CompletableFuture<Boolean> result) {
+      templates.add(template);
+      results.add(result);
+      bytes += size;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.feign;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Marks request bodies larger than the threshold with {@code Content-Encoding: gzip}. The body
+ * itself is compressed on the wire by the Feign client, which also drops the now stale
+ * {@code Content-Length} header and streams the request chunked.
+ */
+public class GzipRequestInterceptor implements RequestInterceptor {
+
+  public static final String CONTENT_ENCODING = "Content-Encoding";
+  public static final String GZIP = "gzip";
+
+  private final long minRequestSize;
+
+  public GzipRequestInterceptor(long minRequestSize) {
+    this.minRequestSize = minRequestSize;
+  }
+
+  @Override
+  public void apply(RequestTemplate requestTemplate) {
+    var body = requestTemplate.body();
+    if (body == null || body.length < minRequestSize
+        || requestTemplate.headers().containsKey(CONTENT_ENCODING)) {
+      return;
+    }
+    requestTemplate.header(CONTENT_ENCODING, GZIP);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Feign client on top of the JDK {@link HttpClient}. Requests negotiate HTTP/2 and fall back to
+ * HTTP/1.1 when the server does not support it; connections are pooled by the JDK client.
+ */
+public class Http2Client implements Client {
+
+  private static final Set<String> RESTRICTED_HEADERS =
+      Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+  private final HttpClient httpClient;
+
+  public Http2Client(HttpClient httpClient) {
+    this.httpClient = httpClient;
+  }
+
+  @Override
+  public Response execute(Request request, Request.Options options) throws IOException {
+    HttpResponse<InputStream> httpResponse;
+    try {
+      httpResponse = httpClient.send(toHttpRequest(request, options), BodyHandlers.ofInputStream());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while sending request to " + request.url(), e);
+    }
+    var contentLength = httpResponse.headers().firstValueAsLong("Content-Length");
+    return Response.builder()
+        .status(httpResponse.statusCode())
+        .headers(toFeignHeaders(httpResponse.headers()))
+        .body(httpResponse.body(), contentLength.isPresent()
+            ? Integer.valueOf((int) contentLength.getAsLong()) : null)
+        .request(request)
+        .build();
+  }
+
+  private HttpRequest toHttpRequest(Request request, Request.Options options) {
+    var builder = HttpRequest.newBuilder(URI.create(request.url()))
+        .timeout(Duration.ofMillis(options.readTimeoutMillis()))
+        .method(request.httpMethod().name(), request.body() == null
+            ? BodyPublishers.noBody() : BodyPublishers.ofByteArray(request.body()));
+    request.headers().forEach((name, values) -> {
+      if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+        values.forEach(value -> builder.header(name, value));
+      }
+    });
+    return builder.build();
+  }
+
+  private Map<String, Collection<String>> toFeignHeaders(HttpHeaders headers) {
+    Map<String, Collection<String>> feignHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    feignHeaders.putAll(headers.map());
+    return feignHeaders;
+  }
+}
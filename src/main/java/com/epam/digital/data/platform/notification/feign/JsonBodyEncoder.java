@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes request bodies to JSON with a {@code JsonGenerator} in a single pass. Feign hands the
+ * body to the client as a byte array, so it cannot be streamed to the connection; the buffer is
+ * presized with the size of the previous body, so that templates of similar size are written
+ * without growing it. String and byte array bodies are passed through.
+ */
+public class JsonBodyEncoder implements Encoder {
+
+  public static final String CONTENT_TYPE = "Content-Type";
+  public static final String APPLICATION_JSON = "application/json";
+
+  private static final int MIN_BUFFER_SIZE = 1024;
+  private static final int MAX_BUFFER_SIZE = 1024 * 1024;
+
+  private final ObjectMapper objectMapper;
+  private final Encoder passThroughEncoder = new Encoder.Default();
+  private volatile int sizeHint = MIN_BUFFER_SIZE;
+
+  public JsonBodyEncoder(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public void encode(Object object, Type bodyType, RequestTemplate template) {
+    if (object instanceof String || object instanceof byte[]) {
+      passThroughEncoder.encode(object, bodyType, template);
+      return;
+    }
+    var writer = objectMapper.writerFor(objectMapper.constructType(bodyType));
+    var output = new ByteArrayOutputStream(sizeHint);
+    try (var generator = writer.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+      writer.writeValue(generator, object);
+    } catch (IOException e) {
+      throw new EncodeException("Failed to serialize request body: " + e.getMessage(), e);
+    }
+    sizeHint = Math.max(MIN_BUFFER_SIZE, Math.min(output.size(), MAX_BUFFER_SIZE));
+    if (!template.headers().containsKey(CONTENT_TYPE)) {
+      template.header(CONTENT_TYPE, APPLICATION_JSON);
+    }
+    template.body(output.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.codec.Encoder;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign client configuration of the notification-service clients. It is not a
+ * {@code @Configuration}, so the encoder is registered only in the contexts of the clients that
+ * reference it and does not replace the encoder of other Feign clients.
+ */
+public class NotificationServiceFeignConfiguration {
+
+  @Bean
+  public Encoder jsonBodyEncoder(ObjectMapper objectMapper) {
+    return new JsonBodyEncoder(objectMapper);
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.properties.NotificationServiceClientProperties;
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import feign.RetryableException;
+import feign.Retryer;
+import java.net.UnknownHostException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLHandshakeException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retries requests failed with a retryable status code or an I/O error using exponential backoff
+ * with jitter, bounded by a maximum number of attempts and a total time budget. A
+ * {@code Retry-After} hint of the server is respected when it is longer than the backoff.
+ */
+@Slf4j
+public class NotificationServiceRetryer implements Retryer {
+
+  public static final String RETRIES_COUNTER = "notification-service.retries";
+  public static final String RETRY_WAIT_COUNTER = "notification-service.retry-wait-ms";
+
+  private final NotificationServiceClientProperties.Retry policy;
+  private final PublishingStatistics publishingStatistics;
+  private final long startedAt = System.nanoTime();
+  private int attempt = 1;
+
+  public NotificationServiceRetryer(NotificationServiceClientProperties.Retry policy,
+      PublishingStatistics publishingStatistics) {
+    this.policy = policy;
+    this.publishingStatistics = publishingStatistics;
+  }
+
+  @Override
+  public void continueOrPropagate(RetryableException e) {
+    if (!isRetryable(e) || attempt >= policy.getMaxAttempts()) {
+      throw e;
+    }
+    var delay = nextDelay(e);
+    var elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    if (elapsed + delay > policy.getMaxElapsedTime().toMillis()) {
+      log.warn("Retry time budget of {} exhausted after {} attempts", policy.getMaxElapsedTime(),
+          attempt);
+      throw e;
+    }
+    log.warn("Attempt {} of {} failed, retrying in {} ms: {}", attempt, policy.getMaxAttempts(),
+        delay, e.getMessage());
+    try {
+      Thread.sleep(delay);
+    } catch (InterruptedException interrupted) {
+      Thread.currentThread().interrupt();
+      throw e;
+    }
+    attempt++;
+    publishingStatistics.increment(RETRIES_COUNTER);
+    publishingStatistics.add(RETRY_WAIT_COUNTER, delay);
+  }
+
+  private boolean isRetryable(RetryableException e) {
+    if (e.status() < 0) {
+      var cause = e.getCause();
+      return !(cause instanceof UnknownHostException || cause instanceof SSLHandshakeException);
+    }
+    return policy.getRetryableStatuses().contains(e.status());
+  }
+
+  private long nextDelay(RetryableException e) {
+    var backoff = Math.min(policy.getMaxBackoff().toMillis(),
+        policy.getInitialBackoff().toMillis() * Math.pow(policy.getMultiplier(), attempt - 1.0));
+    var jittered = (long) (backoff * (1 - policy.getJitter() * ThreadLocalRandom.current()
+        .nextDouble()));
+    if (e.retryAfter() == null) {
+      return jittered;
+    }
+    return Math.max(jittered, e.retryAfter().getTime() - System.currentTimeMillis());
+  }
+
+  @Override
+  public Retryer clone() {
+    return new NotificationServiceRetryer(policy, publishingStatistics);
+  }
+}
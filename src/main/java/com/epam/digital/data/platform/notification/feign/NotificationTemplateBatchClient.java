@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.dto.NotificationTemplateBatchItemDto;
+import java.util.List;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+/**
+ * Saves several templates in a single request. Notification service versions without the batch
+ * endpoint answer with 404, 405 or 501, see {@link BatchingTemplateRestClient}.
+ */
+@FeignClient(name = "notification-template-batch-client", url = "${notification-service.url}",
+    configuration = NotificationServiceFeignConfiguration.class)
+public interface NotificationTemplateBatchClient {
+
+  @PostMapping("/api/notifications/templates:batch")
+  void saveTemplates(@RequestBody List<NotificationTemplateBatchItemDto> templates);
+}
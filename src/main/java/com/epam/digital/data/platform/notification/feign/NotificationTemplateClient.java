@@ -0,0 +1,29 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.client.NotificationTemplateRestClient;
+import org.springframework.cloud.openfeign.FeignClient;
+
+/**
+ * Registers {@link NotificationTemplateRestClient} with the notification-service client
+ * configuration, which the client of the API module cannot declare by itself.
+ */
+@FeignClient(name = "notification-template-client", url = "${notification-service.url}",
+    configuration = NotificationServiceFeignConfiguration.class)
+public interface NotificationTemplateClient extends NotificationTemplateRestClient {
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delays requests so that neither the request rate nor the rate of sent body bytes exceeds the
+ * configured limits. Either bucket may be {@code null} to leave that dimension unlimited.
+ */
+public class RateLimitingClient implements Client {
+
+  public static final String WAIT_COUNTER = "notification-service.rate-limit-wait-ms";
+
+  private final Client delegate;
+  private final TokenBucket requestBucket;
+  private final TokenBucket byteBucket;
+  private final PublishingStatistics publishingStatistics;
+
+  public RateLimitingClient(Client delegate, TokenBucket requestBucket, TokenBucket byteBucket,
+      PublishingStatistics publishingStatistics) {
+    this.delegate = delegate;
+    this.requestBucket = requestBucket;
+    this.byteBucket = byteBucket;
+    this.publishingStatistics = publishingStatistics;
+  }
+
+  @Override
+  public Response execute(Request request, Request.Options options) throws IOException {
+    long waitNanos = 0;
+    if (requestBucket != null) {
+      waitNanos = requestBucket.reserve(1);
+    }
+    if (byteBucket != null && request.body() != null) {
+      waitNanos = Math.max(waitNanos, byteBucket.reserve(request.body().length));
+    }
+    if (waitNanos > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the rate limiter");
+      }
+      publishingStatistics.add(WAIT_COUNTER, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+      publishingStatistics.recordWait(waitNanos);
+    }
+    return delegate.execute(request, options);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips bodies of requests marked with {@code Content-Encoding: gzip} before handing them to a
+ * client that, unlike {@link Client.Default}, does not compress them by itself.
+ */
+public class RequestCompressingClient implements Client {
+
+  private final Client delegate;
+
+  public RequestCompressingClient(Client delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Response execute(Request request, Request.Options options) throws IOException {
+    return delegate.execute(compress(request), options);
+  }
+
+  private Request compress(Request request) throws IOException {
+    var contentEncoding = request.headers().get(GzipRequestInterceptor.CONTENT_ENCODING);
+    if (request.body() == null || contentEncoding == null
+        || !contentEncoding.contains(GzipRequestInterceptor.GZIP)) {
+      return request;
+    }
+    var body = gzip(request.body());
+    Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+    headers.put(Util.CONTENT_LENGTH, List.of(String.valueOf(body.length)));
+    return Request.create(request.httpMethod(), request.url(), headers, body, null,
+        request.requestTemplate());
+  }
+
+  private byte[] gzip(byte[] body) throws IOException {
+    var output = new ByteArrayOutputStream(Math.max(body.length / 4, 32));
+    try (var gzipOutput = new GZIPOutputStream(output, 8192)) {
+      gzipOutput.write(body);
+    }
+    return output.toByteArray();
+  }
+}
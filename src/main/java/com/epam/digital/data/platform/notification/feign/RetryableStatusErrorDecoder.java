@@ -0,0 +1,47 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.feign;
+
+import feign.RetryableException;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import java.util.Set;
+
+/**
+ * Turns error responses with a transient status code into {@link RetryableException} so that they
+ * are handed to the {@link feign.Retryer}. Other responses are decoded as by default.
+ */
+public class RetryableStatusErrorDecoder implements ErrorDecoder {
+
+  private final ErrorDecoder delegate = new ErrorDecoder.Default();
+  private final Set<Integer> retryableStatuses;
+
+  public RetryableStatusErrorDecoder(Set<Integer> retryableStatuses) {
+    this.retryableStatuses = retryableStatuses;
+  }
+
+  @Override
+  public Exception decode(String methodKey, Response response) {
+    var exception = delegate.decode(methodKey, response);
+    if (exception instanceof RetryableException
+        || !retryableStatuses.contains(response.status())) {
+      return exception;
+    }
+    var request = response.request();
+    return new RetryableException(response.status(), exception.getMessage(), request.httpMethod(),
+        exception, null, request);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.feign;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket refilled at a constant rate up to its capacity. Reservations larger than the
+ * available tokens are granted on credit: the bucket goes negative and the caller, as well as
+ * everyone after it, waits until the debt is paid off.
+ */
+public class TokenBucket {
+
+  private final double permitsPerSecond;
+  private final double capacity;
+  private final LongSupplier nanoClock;
+
+  private double available;
+  private long refilledAt;
+
+  public TokenBucket(double permitsPerSecond, double capacity) {
+    this(permitsPerSecond, capacity, System::nanoTime);
+  }
+
+  TokenBucket(double permitsPerSecond, double capacity, LongSupplier nanoClock) {
+    this.permitsPerSecond = permitsPerSecond;
+    this.capacity = capacity;
+    this.nanoClock = nanoClock;
+    this.available = capacity;
+    this.refilledAt = nanoClock.getAsLong();
+  }
+
+  /**
+   * Takes the permits and returns the number of nanoseconds the caller has to wait before using
+   * them.
+   */
+  public synchronized long reserve(long permits) {
+    var now = nanoClock.getAsLong();
+    available = Math.min(capacity,
+        available + (now - refilledAt) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+    refilledAt = now;
+    available -= permits;
+    return available >= 0 ? 0
+        : (long) Math.ceil(-available / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+  }
+}
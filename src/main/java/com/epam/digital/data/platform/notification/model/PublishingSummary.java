@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.model;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregated result of a single publishing run. Safe for concurrent updates from publishing
+ * workers.
+ */
+public class PublishingSummary {
+
+  private final Map<String, LongAdder> publishedByChannel = new ConcurrentHashMap<>();
+  private final LongAdder skipped = new LongAdder();
+  private final LongAdder resumed = new LongAdder();
+  private final ConcurrentLinkedQueue<TemplateFailure> failures = new ConcurrentLinkedQueue<>();
+  private volatile Map<String, Long> counters = Map.of();
+  private volatile Map<String, Long> gauges = Map.of();
+  private final long startedAt = System.nanoTime();
+  private volatile long finishedAt;
+  private volatile Duration makespan;
+  private volatile Duration makespanLowerBound;
+
+  public void recordPublished(String channel) {
+    publishedByChannel.computeIfAbsent(channel, key -> new LongAdder()).increment();
+  }
+
+  public void recordSkipped() {
+    skipped.increment();
+  }
+
+  public void recordResumed() {
+    resumed.increment();
+  }
+
+  public void recordFailure(TemplateFailure failure) {
+    failures.add(failure);
+  }
+
+  /**
+   * Records how long the parallel publishing took compared to the lower bound for the measured
+   * template durations and number of workers.
+   */
+  public void recordSchedule(Duration makespan, Duration lowerBound) {
+    this.makespan = makespan;
+    this.makespanLowerBound = lowerBound;
+  }
+
+  public void finish(Map<String, Long> counters, Map<String, Long> gauges) {
+    this.counters = counters;
+    this.gauges = gauges;
+    finishedAt = System.nanoTime();
+  }
+
+  public long getPublishedCount() {
+    return publishedByChannel.values().stream().mapToLong(LongAdder::sum).sum();
+  }
+
+  public long getSkippedCount() {
+    return skipped.sum();
+  }
+
+  /**
+   * Templates skipped because the interrupted run being resumed had already published them.
+   */
+  public long getResumedCount() {
+    return resumed.sum();
+  }
+
+  /**
+   * Templates that failed in continue-on-error mode, ordered by channel and template name.
+   */
+  public List<TemplateFailure> getFailures() {
+    return failures.stream()
+        .sorted(Comparator.comparing(TemplateFailure::getChannel)
+            .thenComparing(TemplateFailure::getTemplateName))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * One line per failed template with the phase it failed in.
+   */
+  public String getFailureReport() {
+    return getFailures().stream()
+        .map(failure -> "  " + failure)
+        .collect(Collectors.joining(System.lineSeparator()));
+  }
+
+  public Map<String, Long> getPublishedByChannel() {
+    var result = new TreeMap<String, Long>();
+    publishedByChannel.forEach((channel, count) -> result.put(channel, count.sum()));
+    return result;
+  }
+
+  /**
+   * Component counters (cache hits, retries and so on) accumulated during the run.
+   */
+  public Map<String, Long> getCounters() {
+    return counters;
+  }
+
+  /**
+   * Latest values of component gauges (current concurrency limit and so on) when the run finished.
+   */
+  public Map<String, Long> getGauges() {
+    return gauges;
+  }
+
+  /**
+   * @return duration of the parallel publishing, {@code null} when the run was sequential
+   */
+  public Duration getMakespan() {
+    return makespan;
+  }
+
+  public Duration getMakespanLowerBound() {
+    return makespanLowerBound;
+  }
+
+  public Duration getDuration() {
+    var end = finishedAt == 0 ? System.nanoTime() : finishedAt;
+    return Duration.ofNanos(end - startedAt);
+  }
+
+  @Override
+  public String toString() {
+    var result = String.format("published %d templates %s, skipped %d unchanged in %d ms",
+        getPublishedCount(), getPublishedByChannel(), getSkippedCount(),
+        getDuration().toMillis());
+    if (!failures.isEmpty()) {
+      result += String.format(", failed %d", failures.size());
+    }
+    if (makespan != null) {
+      result += String.format(", makespan %d ms of lower bound %d ms", makespan.toMillis(),
+          makespanLowerBound.toMillis());
+    }
+    if (getResumedCount() > 0) {
+      result += String.format(", resumed past %d already published", getResumedCount());
+    }
+    if (!counters.isEmpty()) {
+      result += ", counters " + counters;
+    }
+    return gauges.isEmpty() ? result : result + ", gauges " + gauges;
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TemplateFailure {
+
+  private final String channel;
+  private final String templateName;
+  /**
+   * Phase the template failed in, {@code null} when the loader did not report it.
+   */
+  private final PublishingPhase phase;
+  private final String message;
+
+  @Override
+  public String toString() {
+    return String.format("%s/%s [%s] %s", channel, templateName,
+        phase == null ? "UNKNOWN" : phase, message);
+  }
+}
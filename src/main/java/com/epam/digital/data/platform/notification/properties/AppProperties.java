@@ -20,11 +20,24 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 @Getter
 @Setter
 @Configuration
 @ConfigurationProperties(prefix = "app")
 public class AppProperties {
+  /**
+   * Notifications directory or a {@code .zip}, {@code .tar.gz} or {@code .tgz} archive with the
+   * same layout.
+   */
   public String notificationsDirectoryName;
+  /**
+   * Maximum total size of the template archive files.
+   */
+  private DataSize archiveMaxSize = DataSize.ofMegabytes(64);
+  /**
+   * Template archive files larger than this are kept in temporary files instead of memory.
+   */
+  private DataSize archiveSpillThreshold = DataSize.ofKilobytes(256);
 }
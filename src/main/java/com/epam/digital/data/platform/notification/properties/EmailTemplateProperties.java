@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.email")
+public class EmailTemplateProperties {
+
+  /**
+   * Maximum size of a single asset embedded into an email template.
+   */
+  private DataSize maxAssetSize = DataSize.ofMegabytes(20);
+
+  /**
+   * Remove comments and insignificant whitespace from the template HTML and embedded CSS.
+   */
+  private boolean minify;
+
+  private HtmlProcessing htmlProcessing = HtmlProcessing.DOM;
+
+  private ImageCache imageCache = new ImageCache();
+  private StylesheetCache stylesheetCache = new StylesheetCache();
+  private ImageOptimization imageOptimization = new ImageOptimization();
+  private CssPruning cssPruning = new CssPruning();
+
+  public enum HtmlProcessing {
+    /**
+     * Parse the template into a Jsoup document, rewrite it and serialize it back. Required by
+     * {@link #minify} and CSS pruning.
+     */
+    DOM,
+    /**
+     * Rewrite image sources and stylesheet links in a single pass copying the rest of the
+     * template unchanged.
+     */
+    STREAMING
+  }
+
+  @Getter
+  @Setter
+  public static class ImageCache {
+
+    /**
+     * Upper bound of the encoded images kept in memory. Zero disables the cache.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+  }
+
+  @Getter
+  @Setter
+  public static class StylesheetCache {
+
+    /**
+     * Upper bound of the stylesheets kept in memory, in characters. Zero disables the cache.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(8);
+  }
+
+  @Getter
+  @Setter
+  public static class ImageOptimization {
+
+    /**
+     * Detect the real image type, downscale and re-encode images before embedding. When disabled
+     * images are embedded as is with the {@code image/jpeg} type.
+     */
+    private boolean enabled;
+    private int maxWidth = 1200;
+    private int maxHeight = 1200;
+    private float jpegQuality = 0.85f;
+  }
+
+  @Getter
+  @Setter
+  public static class CssPruning {
+
+    /**
+     * Drop style rules whose selectors match no element of the template.
+     */
+    private boolean enabled;
+
+    /**
+     * Regular expressions of selectors that are always kept, e.g. classes set by FreeMarker
+     * expressions at render time.
+     */
+    private List<String> allowList = new ArrayList<>();
+  }
+}
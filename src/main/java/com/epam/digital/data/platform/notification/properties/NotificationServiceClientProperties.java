@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "notification-service.client")
+public class NotificationServiceClientProperties {
+
+  private HttpClientType httpClient = HttpClientType.POOLED;
+  private int maxConnections = 50;
+  private int maxConnectionsPerRoute = 20;
+  /**
+   * Upper bound for keeping an idle connection open, lowered to the server's Keep-Alive hint.
+   */
+  private Duration keepAlive = Duration.ofSeconds(30);
+  private Duration connectTimeout = Duration.ofSeconds(10);
+  private Duration readTimeout = Duration.ofSeconds(60);
+  private Compression compression = new Compression();
+  private Retry retry = new Retry();
+  private RateLimit rateLimit = new RateLimit();
+  private AdaptiveConcurrency adaptiveConcurrency = new AdaptiveConcurrency();
+  private Batch batch = new Batch();
+
+  public enum HttpClientType {
+    /**
+     * Feign's HttpURLConnection based client.
+     */
+    DEFAULT,
+    /**
+     * Apache HttpClient with a bounded connection pool.
+     */
+    POOLED,
+    /**
+     * JDK HttpClient negotiating HTTP/2, multiplexing requests over shared connections.
+     */
+    HTTP2
+  }
+
+  @Getter
+  @Setter
+  public static class Compression {
+
+    /**
+     * Send request bodies gzip-compressed. The notification-service side (or the ingress in front of it) has to
+     * accept {@code Content-Encoding: gzip} requests.
+     */
+    private boolean enabled;
+
+    /**
+     * Request bodies smaller than this are sent uncompressed.
+     */
+    private DataSize minRequestSize = DataSize.ofKilobytes(8);
+  }
+
+  @Getter
+  @Setter
+  public static class Retry {
+
+    private boolean enabled = true;
+    /**
+     * Total number of attempts per request, including the first one.
+     */
+    private int maxAttempts = 5;
+    private Duration initialBackoff = Duration.ofMillis(500);
+    private Duration maxBackoff = Duration.ofSeconds(30);
+    private double multiplier = 2;
+    /**
+     * Share of each backoff that is randomized, from 0 (none) to 1 (full jitter).
+     */
+    private double jitter = 0.5;
+    /**
+     * Retrying stops once the next attempt would start later than this after the first one.
+     */
+    private Duration maxElapsedTime = Duration.ofMinutes(2);
+    private Set<Integer> retryableStatuses = Set.of(408, 429, 502, 503, 504);
+  }
+
+  @Getter
+  @Setter
+  public static class RateLimit {
+
+    /**
+     * Maximum number of requests per second, 0 for no limit.
+     */
+    private double requestsPerSecond;
+    /**
+     * Maximum amount of request body data sent per second, 0 for no limit.
+     */
+    private DataSize bytesPerSecond = DataSize.ofBytes(0);
+  }
+
+  @Getter
+  @Setter
+  public static class AdaptiveConcurrency {
+
+    /**
+     * Limit the requests in flight adaptively. Useful with a publishing parallelism of at least
+     * {@code max-limit}, the limiter then decides how many workers upload at once.
+     */
+    private boolean enabled;
+    private int initialLimit = 4;
+    private int minLimit = 1;
+    private int maxLimit = 32;
+    /**
+     * Latency above this multiple of the lowest observed one is treated as congestion.
+     */
+    private double latencyTolerance = 2;
+    /**
+     * Factor the limit is multiplied with on congestion.
+     */
+    private double backoffRatio = 0.8;
+  }
+
+  @Getter
+  @Setter
+  public static class Batch {
+
+    /**
+     * Save small templates of concurrent publishing workers in batch requests. Applies only with
+     * a publishing parallelism greater than one, templates of a sequential run are saved one by
+     * one without waiting for the {@link #linger} time.
+     */
+    private boolean enabled;
+    private int maxTemplates = 20;
+    private DataSize maxBytes = DataSize.ofKilobytes(256);
+    /**
+     * Templates larger than this are saved one by one, as latency does not dominate their save.
+     */
+    private DataSize maxTemplateSize = DataSize.ofKilobytes(16);
+    /**
+     * How long the first template of a batch waits for others to join before the batch is sent.
+     */
+    private Duration linger = Duration.ofMillis(10);
+  }
+}
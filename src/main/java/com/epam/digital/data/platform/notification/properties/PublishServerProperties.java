@@ -0,0 +1,41 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.server")
+public class PublishServerProperties {
+
+  /**
+   * Address the server mode endpoint binds to. The endpoint has no authentication, keep it on the
+   * loopback interface unless the network is trusted.
+   */
+  private String address = "127.0.0.1";
+  private int port = 8787;
+  /**
+   * Threads serving requests. Publishing requests are run one at a time, the other threads keep
+   * the health endpoint responsive and queue further publishing requests.
+   */
+  private int threads = 4;
+}
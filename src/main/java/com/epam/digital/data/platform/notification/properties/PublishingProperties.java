@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.properties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.publishing")
+public class PublishingProperties {
+
+  /**
+   * Number of workers publishing templates concurrently. Value {@code 1} keeps the sequential
+   * behaviour.
+   */
+  private int parallelism = 1;
+
+  /**
+   * Channels whose templates must be published one by one in the template name order even when
+   * {@link #parallelism} is greater than one.
+   */
+  private List<String> orderedChannels = new ArrayList<>();
+
+  /**
+   * Skip template directories whose content digest matches the one recorded in
+   * {@link #manifestFile} by a previous successful run.
+   */
+  private boolean incremental;
+
+  private String manifestFile = "publish-manifest.json";
+
+  /**
+   * Keep publishing the remaining templates when one fails and report all failures at the end of
+   * the run instead of aborting on the first one.
+   */
+  private boolean continueOnError;
+
+  /**
+   * Validate all templates before publishing any of them and abort the run if a template is
+   * invalid.
+   */
+  private boolean validate = true;
+
+  /**
+   * JSON summary of the run, blank to only log it. Sharded runs add the shard index to the name.
+   */
+  private String summaryFile;
+
+  /**
+   * Fail the run when the configured notifications directory does not exist instead of
+   * publishing nothing, e.g. in the publish Job. A source given by request, a template archive
+   * and a sharded run always require the source.
+   */
+  private boolean requireSource;
+
+  private Checkpoint checkpoint = new Checkpoint();
+
+  private Watch watch = new Watch();
+
+  private Scheduling scheduling = new Scheduling();
+
+  private Shard shard = new Shard();
+
+  @Getter
+  @Setter
+  public static class Checkpoint {
+
+    /**
+     * Journal templates published by the run, so that an interrupted run can be continued with
+     * {@code --resume}. Costs a digest of every template, so it is off by default.
+     */
+    private boolean enabled;
+    private String file = "publish-checkpoint.journal";
+    /**
+     * Journal entries are forced to disk after this many templates or {@link #syncInterval},
+     * whichever comes first.
+     */
+    private int syncBatchSize = 50;
+    private Duration syncInterval = Duration.ofSeconds(1);
+  }
+
+  @Getter
+  @Setter
+  public static class Watch {
+
+    /**
+     * Changes are republished once no further file events arrived for this long, so that a burst
+     * of events of a single save is handled once.
+     */
+    private Duration debounce = Duration.ofMillis(300);
+  }
+
+  @Getter
+  @Setter
+  public static class Scheduling {
+
+    /**
+     * Order templates are handed to the workers in when {@link #parallelism} is greater than
+     * one.
+     */
+    private Order order = Order.LARGEST_FIRST;
+    /**
+     * Durations of published templates recorded for scheduling later runs, blank to estimate
+     * by template size only.
+     */
+    private String timingsFile = "publish-timings.json";
+
+    public enum Order {
+      /**
+       * Longest estimated processing time first across all channels, so that no large template
+       * starts last while the other workers are idle.
+       */
+      LARGEST_FIRST,
+      /**
+       * Channel by channel in the template index order.
+       */
+      INDEX
+    }
+  }
+
+  @Getter
+  @Setter
+  public static class Shard {
+
+    /**
+     * Zero-based index of the slice of templates published by this instance, overridden by the
+     * {@code --shard=index/count} argument.
+     */
+    private int index;
+    /**
+     * Number of instances the templates are split between, {@code 1} to publish all of them.
+     */
+    private int count = 1;
+  }
+}
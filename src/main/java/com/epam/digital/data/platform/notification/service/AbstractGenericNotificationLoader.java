@@ -18,12 +18,13 @@ package com.epam.digital.data.platform.notification.service;
 import com.epam.digital.data.platform.notification.client.NotificationTemplateRestClient;
 import com.epam.digital.data.platform.notification.dto.NotificationDto;
 import com.epam.digital.data.platform.notification.dto.SaveNotificationTemplateInputDto;
+import com.epam.digital.data.platform.notification.exceptions.TemplatePublishingException;
 import com.epam.digital.data.platform.notification.mapper.NotificationMetadataMapper;
 import com.epam.digital.data.platform.notification.model.NotificationYamlObject;
+import com.epam.digital.data.platform.notification.model.PublishingPhase;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.Callable;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -37,14 +38,17 @@ public abstract class AbstractGenericNotificationLoader implements NotificationD
 
   @SneakyThrows
   @Override
-  public void loadDir(File dir) {
+  public void load(TemplateDirectory dir) {
     try {
-      var notificationDto = getNotificationDto(dir);
+      var notificationDto = inPhase(PublishingPhase.READ, dir, () -> getNotificationDto(dir));
 
-      SaveNotificationTemplateInputDto inputDto =
-          getSaveNotificationTemplateInputDto(notificationDto);
+      SaveNotificationTemplateInputDto inputDto = inPhase(PublishingPhase.METADATA, dir,
+          () -> getSaveNotificationTemplateInputDto(notificationDto));
 
-      templateRestClient.saveTemplate(notificationDto.getChannel(), dir.getName(), inputDto);
+      inPhase(PublishingPhase.HTTP, dir, () -> {
+        templateRestClient.saveTemplate(notificationDto.getChannel(), dir.getName(), inputDto);
+        return null;
+      });
     } catch (Exception e) {
       log.error("Failed processing template {}. Error: {}", dir.getName(), e);
       throw e;
@@ -54,21 +58,35 @@ public abstract class AbstractGenericNotificationLoader implements NotificationD
 
   protected SaveNotificationTemplateInputDto getSaveNotificationTemplateInputDto(
       NotificationDto notificationDto) throws IOException {
-    File templateMetadataFile = notificationDto.getTemplateMetadataFile();
-    var templateMetadata = getNotificationAttributes(templateMetadataFile);
+    var templateMetadata = getNotificationAttributes(notificationDto.getTemplateMetadataFile());
     var inputDto = NotificationMetadataMapper.toSaveNotificationTemplateInputDto(templateMetadata);
     inputDto.setContent(notificationDto.getContent());
     return inputDto;
   }
 
-  public abstract NotificationDto getNotificationDto(File dir) throws IOException;
+  public abstract NotificationDto getNotificationDto(TemplateDirectory dir) throws IOException;
 
-  private NotificationYamlObject getNotificationAttributes(File file) throws IOException {
+  /**
+   * Runs a step of loading the template, attributing its failure to the given phase unless a
+   * nested step has already done so.
+   */
+  protected <T> T inPhase(PublishingPhase phase, TemplateDirectory dir, Callable<T> step) {
     try {
-      return yamlMapper.readValue(file, NotificationYamlObject.class);
-    } catch (FileNotFoundException e) {
-      log.info("Attributes file {} not existing", file.getName());
+      return step.call();
+    } catch (TemplatePublishingException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new TemplatePublishingException(dir.getName(), phase, e);
+    }
+  }
+
+  private NotificationYamlObject getNotificationAttributes(TemplateFile file) throws IOException {
+    if (file == null) {
+      log.info("Attributes file {} not existing", NotificationChannel.METADATA_FILE_NAME);
       return new NotificationYamlObject();
     }
+    try (var inputStream = file.open()) {
+      return yamlMapper.readValue(inputStream, NotificationYamlObject.class);
+    }
   }
 }
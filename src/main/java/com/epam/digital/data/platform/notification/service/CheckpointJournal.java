@@ -0,0 +1,141 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of the templates published by the current run, one
+ * {@code channel<TAB>template<TAB>digest} line per template. Entries are forced to disk in
+ * batches, so a crash loses at most the last batch and those templates are published again. A
+ * resumed run reads the entries of the interrupted one and keeps appending to them.
+ */
+@Slf4j
+public class CheckpointJournal implements Closeable {
+
+  private static final String SEPARATOR = "\t";
+
+  private final Path file;
+  private final FileChannel channel;
+  private final int syncBatchSize;
+  private final long syncIntervalNanos;
+  private final Map<String, String> completed;
+  private final StringBuilder pending = new StringBuilder();
+
+  private int pendingEntries;
+  private long syncedAt = System.nanoTime();
+
+  private CheckpointJournal(Path file, FileChannel channel, int syncBatchSize,
+      Duration syncInterval, Map<String, String> completed) {
+    this.file = file;
+    this.channel = channel;
+    this.syncBatchSize = syncBatchSize;
+    this.syncIntervalNanos = syncInterval.toNanos();
+    this.completed = completed;
+  }
+
+  /**
+   * Opens the journal for a new run. Unless resuming, entries of a previous run are discarded.
+   */
+  public static CheckpointJournal open(Path file, boolean resume, int syncBatchSize,
+      Duration syncInterval) throws IOException {
+    var completed = resume ? readEntries(file) : new ConcurrentHashMap<String, String>();
+    var channel = resume
+        ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND)
+        : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    if (resume) {
+      log.info("Resuming from checkpoint {} with {} published templates", file, completed.size());
+    }
+    return new CheckpointJournal(file, channel, syncBatchSize, syncInterval, completed);
+  }
+
+  public boolean isCompleted(String channelName, String templateName, String digest) {
+    return digest.equals(completed.get(key(channelName, templateName)));
+  }
+
+  public synchronized void record(String channelName, String templateName, String digest)
+      throws IOException {
+    completed.put(key(channelName, templateName), digest);
+    pending.append(channelName).append(SEPARATOR).append(templateName).append(SEPARATOR)
+        .append(digest).append('\n');
+    pendingEntries++;
+    if (pendingEntries >= syncBatchSize || System.nanoTime() - syncedAt >= syncIntervalNanos) {
+      sync();
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      sync();
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Closes and removes the journal once the run it belongs to has finished successfully.
+   */
+  public void discard() throws IOException {
+    close();
+    Files.deleteIfExists(file);
+  }
+
+  private void sync() throws IOException {
+    if (pendingEntries == 0) {
+      return;
+    }
+    var buffer = ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.UTF_8));
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    channel.force(false);
+    pending.setLength(0);
+    pendingEntries = 0;
+    syncedAt = System.nanoTime();
+  }
+
+  private static Map<String, String> readEntries(Path file) throws IOException {
+    var entries = new ConcurrentHashMap<String, String>();
+    try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+      lines.map(line -> line.split(SEPARATOR, -1))
+          // the last line may be torn by a crash in the middle of a write
+          .filter(fields -> fields.length == 3 && !fields[2].isEmpty())
+          .forEach(fields -> entries.put(key(fields[0], fields[1]), fields[2]));
+    } catch (NoSuchFileException e) {
+      log.info("Checkpoint {} not found, publishing all templates", file);
+    }
+    return entries;
+  }
+
+  private static String key(String channelName, String templateName) {
+    return channelName + "/" + templateName;
+  }
+}
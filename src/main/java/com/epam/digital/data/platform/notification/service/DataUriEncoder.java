@@ -0,0 +1,139 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.exceptions.NotificationBuildingException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes files to Base64 data URIs. The file is read from {@link TemplateFile#open()} in fixed
+ * size chunks, which are encoded into a byte buffer of the exact data URI size, so the raw file
+ * content is never held in memory as a whole. The returned string is a copy of that buffer, so
+ * the encoded data URI briefly exists twice.
+ */
+public class DataUriEncoder {
+
+  private static final int CHUNK_SIZE = 3 * 16 * 1024;
+
+  private final long maxAssetSize;
+
+  public DataUriEncoder(long maxAssetSize) {
+    this.maxAssetSize = maxAssetSize;
+  }
+
+  public static DataUriEncoder unlimited() {
+    return new DataUriEncoder(Long.MAX_VALUE);
+  }
+
+  /**
+   * Encodes the file into a buffer sized by {@link TemplateFile#getSize()}. The size is taken
+   * when the templates are indexed, so a file that has grown since, e.g. while it is edited in
+   * watch mode, is read again into a growing buffer and checked against the limit once more.
+   */
+  public String encode(TemplateFile file, String mimeType) throws IOException {
+    var size = file.getSize();
+    verifyAssetSize(file.getName(), size);
+    var output = newOutput(file.getName(), mimeType, size);
+    var chunk = new byte[CHUNK_SIZE];
+    try (var inputStream = file.open()) {
+      try (var base64Output = Base64.getEncoder().wrap(output)) {
+        var remaining = size;
+        int read;
+        while (remaining > 0 && (read = inputStream.readNBytes(chunk, 0,
+            (int) Math.min(CHUNK_SIZE, remaining))) > 0) {
+          base64Output.write(chunk, 0, read);
+          remaining -= read;
+        }
+      }
+      if (inputStream.read() < 0) {
+        return output.toDataUri();
+      }
+    }
+    return encode(readLimited(file), file.getName(), mimeType);
+  }
+
+  public String encode(byte[] content, String name, String mimeType) throws IOException {
+    verifyAssetSize(name, content.length);
+    var output = newOutput(name, mimeType, content.length);
+    try (var base64Output = Base64.getEncoder().wrap(output)) {
+      base64Output.write(content);
+    }
+    return output.toDataUri();
+  }
+
+  public void verifyAssetSize(String name, long size) {
+    if (size > maxAssetSize) {
+      throw new NotificationBuildingException(
+          String.format("Asset \"%s\" of %d bytes exceeds maximum asset size of %d bytes",
+              name, size, maxAssetSize), null);
+    }
+  }
+
+  private byte[] readLimited(TemplateFile file) throws IOException {
+    var content = new ByteArrayOutputStream();
+    var chunk = new byte[CHUNK_SIZE];
+    try (var inputStream = file.open()) {
+      int read;
+      while ((read = inputStream.read(chunk)) > 0) {
+        content.write(chunk, 0, read);
+        verifyAssetSize(file.getName(), content.size());
+      }
+    }
+    return content.toByteArray();
+  }
+
+  private FixedBufferOutputStream newOutput(String name, String mimeType, long size) {
+    var prefix = ("data:" + mimeType + ";base64,").getBytes(StandardCharsets.US_ASCII);
+    var encodedSize = prefix.length + 4 * ((size + 2) / 3);
+    if (encodedSize > Integer.MAX_VALUE - 8) {
+      throw new NotificationBuildingException(
+          String.format("Asset \"%s\" is too large to embed", name), null);
+    }
+    var output = new FixedBufferOutputStream(new byte[(int) encodedSize]);
+    output.write(prefix, 0, prefix.length);
+    return output;
+  }
+
+  private static class FixedBufferOutputStream extends OutputStream {
+
+    private final byte[] buffer;
+    private int position;
+
+    private FixedBufferOutputStream(byte[] buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int b) {
+      buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+      System.arraycopy(bytes, offset, buffer, position, length);
+      position += length;
+    }
+
+    private String toDataUri() {
+      return new String(buffer, 0, position, StandardCharsets.US_ASCII);
+    }
+  }
+}
@@ -4,32 +4,28 @@ import com.epam.digital.data.platform.notification.client.NotificationTemplateRe
 import com.epam.digital.data.platform.notification.dto.NotificationDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
 
 import static com.epam.digital.data.platform.notification.service.NotificationChannel.DIIA;
 
 @Slf4j
 public class DiiaNotificationLoader extends AbstractGenericNotificationLoader {
 
-  private static final String TEMPLATE_CONTENT_FILE_NAME = "notification.diia";
-  private static final String TEMPLATE_METADATA_FILE_NAME = "notification.yml";
+  private static final String TEMPLATE_CONTENT_FILE_NAME = DIIA.getContentFileName();
+  private static final String TEMPLATE_METADATA_FILE_NAME =
+      NotificationChannel.METADATA_FILE_NAME;
 
   public DiiaNotificationLoader(NotificationTemplateRestClient templateRestClient, ObjectMapper yamlMapper) {
     super(templateRestClient, yamlMapper);
   }
 
   @Override
-  public NotificationDto getNotificationDto(File dir) throws IOException {
+  public NotificationDto getNotificationDto(TemplateDirectory dir) throws IOException {
     log.info("Processing diia template {}", dir.getName());
-    var indexFile = Path.of(dir.getPath(), TEMPLATE_CONTENT_FILE_NAME).toFile();
-    var content = FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8);
+    var content = dir.getRequiredFile(TEMPLATE_CONTENT_FILE_NAME).readString();
 
-    var templateMetadataFile = Path.of(dir.getPath(), TEMPLATE_METADATA_FILE_NAME).toFile();
+    var templateMetadataFile = dir.getFile(TEMPLATE_METADATA_FILE_NAME).orElse(null);
 
     return NotificationDto.builder()
             .content(content)
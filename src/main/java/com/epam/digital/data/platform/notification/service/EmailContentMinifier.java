@@ -0,0 +1,260 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Set;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+/**
+ * Removes insignificant whitespace and comments from email HTML and CSS. FreeMarker
+ * interpolations ({@code ${...}}, {@code [=...]}) and directives ({@code <#...>}, {@code [#...]},
+ * macro calls) are copied verbatim, so string literals inside them keep their whitespace.
+ */
+public class EmailContentMinifier {
+
+  private static final Set<String> PRESERVED_WHITESPACE_TAGS =
+      Set.of("pre", "textarea", "script", "style");
+  private static final Set<String> WHITESPACE_INSENSITIVE_TAGS = Set.of(
+      "html", "head", "table", "thead", "tbody", "tfoot", "tr", "ul", "ol", "select");
+  private static final String[] FREEMARKER_OPENINGS =
+      {"${", "#{", "[=", "[#", "[/#", "[@", "[/@", "<#", "</#", "<@", "</@"};
+
+  public void minify(Document document) {
+    var comments = new ArrayList<Comment>();
+    var textNodes = new ArrayList<TextNode>();
+    var styles = new ArrayList<DataNode>();
+    NodeTraversor.traverse(new NodeVisitor() {
+      @Override
+      public void head(Node node, int depth) {
+        if (node instanceof Comment) {
+          comments.add((Comment) node);
+        } else if (node instanceof TextNode) {
+          textNodes.add((TextNode) node);
+        } else if (node instanceof DataNode && isInside(node, "style")) {
+          styles.add((DataNode) node);
+        }
+      }
+
+      @Override
+      public void tail(Node node, int depth) {
+        // nothing to do on leaving the node
+      }
+    }, document);
+
+    comments.stream().filter(comment -> !isConditionalComment(comment)).forEach(Node::remove);
+    textNodes.forEach(this::minifyText);
+    styles.forEach(style -> style.setWholeData(minifyCss(style.getWholeData())));
+    document.outputSettings().prettyPrint(false);
+  }
+
+  public String minifyCss(String css) {
+    var result = new StringBuilder(css.length());
+    var declarationBlocks = new ArrayDeque<Boolean>();
+    int statementStart = 0;
+    int i = 0;
+    while (i < css.length()) {
+      var c = css.charAt(i);
+      var freemarkerEnd = freemarkerEnd(css, i);
+      if (freemarkerEnd > i) {
+        result.append(css, i, freemarkerEnd);
+        i = freemarkerEnd;
+      } else if (c == '"' || c == '\'') {
+        var end = stringEnd(css, i);
+        result.append(css, i, end);
+        i = end;
+      } else if (c == '/' && i + 1 < css.length() && css.charAt(i + 1) == '*') {
+        var end = css.indexOf("*/", i + 2);
+        i = end < 0 ? css.length() : end + 2;
+      } else if (Character.isWhitespace(c)) {
+        while (i < css.length() && Character.isWhitespace(css.charAt(i))) {
+          i++;
+        }
+        var inDeclarations = Boolean.TRUE.equals(declarationBlocks.peek());
+        if (result.length() > statementStart && i < css.length()
+            && !isCssPunctuation(result.charAt(result.length() - 1), true, inDeclarations)
+            && !isCssPunctuation(css.charAt(i), false, inDeclarations)) {
+          result.append(' ');
+        }
+      } else if (c == '{') {
+        declarationBlocks.push(
+            statementStart >= result.length() || result.charAt(statementStart) != '@');
+        result.append(c);
+        statementStart = result.length();
+        i++;
+      } else if (c == '}' || c == ';') {
+        if (c == '}') {
+          declarationBlocks.poll();
+          if (result.length() > 0 && result.charAt(result.length() - 1) == ';') {
+            result.setLength(result.length() - 1);
+          }
+        }
+        result.append(c);
+        statementStart = result.length();
+        i++;
+      } else {
+        result.append(c);
+        i++;
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Collapses whitespace runs to a single space outside FreeMarker constructs.
+   */
+  String collapseWhitespace(String text) {
+    var result = new StringBuilder(text.length());
+    int i = 0;
+    while (i < text.length()) {
+      var freemarkerEnd = freemarkerEnd(text, i);
+      if (freemarkerEnd > i) {
+        result.append(text, i, freemarkerEnd);
+        i = freemarkerEnd;
+      } else if (Character.isWhitespace(text.charAt(i))) {
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+          i++;
+        }
+        result.append(' ');
+      } else {
+        result.append(text.charAt(i++));
+      }
+    }
+    return result.toString();
+  }
+
+  private void minifyText(TextNode textNode) {
+    var parent = textNode.parent();
+    if (parent instanceof Element && hasPreservedWhitespace((Element) parent)) {
+      return;
+    }
+    if (textNode.isBlank() && parent instanceof Element
+        && WHITESPACE_INSENSITIVE_TAGS.contains(((Element) parent).normalName())) {
+      textNode.remove();
+      return;
+    }
+    var text = collapseWhitespace(textNode.getWholeText());
+    var previous = textNode.previousSibling();
+    if (text.startsWith(" ") && previous instanceof TextNode
+        && ((TextNode) previous).getWholeText().endsWith(" ")) {
+      text = text.substring(1);
+    }
+    if (text.isEmpty()) {
+      textNode.remove();
+    } else {
+      textNode.text(text);
+    }
+  }
+
+  private static boolean hasPreservedWhitespace(Element element) {
+    for (Element current = element; current != null; current = current.parent()) {
+      if (PRESERVED_WHITESPACE_TAGS.contains(current.normalName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isInside(Node node, String tagName) {
+    return node.parent() instanceof Element
+        && tagName.equals(((Element) node.parent()).normalName());
+  }
+
+  private static boolean isConditionalComment(Comment comment) {
+    var data = comment.getData().trim();
+    return data.startsWith("[if") || data.endsWith("<![endif]") || data.startsWith("<![endif]");
+  }
+
+  private static boolean isCssPunctuation(char c, boolean before, boolean inDeclarations) {
+    switch (c) {
+      case '{':
+      case '}':
+      case ';':
+      case ',':
+      case '>':
+        return true;
+      case ':':
+        return before || inDeclarations;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Returns the index after the FreeMarker construct starting at {@code start}, or {@code start}
+   * when there is no construct at that position.
+   */
+  private static int freemarkerEnd(String text, int start) {
+    for (String opening : FREEMARKER_OPENINGS) {
+      if (text.startsWith(opening, start)) {
+        int end;
+        if (opening.charAt(0) == '[') {
+          end = matchingEnd(text, start + opening.length(), '[', ']');
+        } else if (opening.charAt(0) == '<') {
+          end = matchingEnd(text, start + opening.length(), '\0', '>');
+        } else {
+          end = matchingEnd(text, start + opening.length(), '{', '}');
+        }
+        return end < 0 ? start : end;
+      }
+    }
+    return start;
+  }
+
+  private static int matchingEnd(String text, int from, char open, char close) {
+    int depth = 1;
+    int i = from;
+    while (i < text.length()) {
+      var c = text.charAt(i);
+      if (c == '"' || c == '\'') {
+        i = stringEnd(text, i);
+        continue;
+      }
+      if (c == open) {
+        depth++;
+      } else if (c == close && --depth == 0) {
+        return i + 1;
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  private static int stringEnd(String text, int start) {
+    var quote = text.charAt(start);
+    int i = start + 1;
+    while (i < text.length()) {
+      var c = text.charAt(i);
+      if (c == '\\') {
+        i += 2;
+      } else if (c == quote) {
+        return i + 1;
+      } else {
+        i++;
+      }
+    }
+    return text.length();
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.model.EmbeddedImage;
+import java.io.IOException;
+
+/**
+ * Turns image files referenced by email templates into data URIs: optionally optimizes the
+ * image, encodes it and shares the result between templates through the image cache.
+ */
+public class EmailImageEmbedder {
+
+  public static final String BYTES_SAVED_COUNTER = "email.image-optimizer.bytes-saved";
+
+  private static final String DEFAULT_MIME_TYPE = "image/jpeg";
+
+  private final EmbeddedImageCache imageCache;
+  private final DataUriEncoder dataUriEncoder;
+  private final ImageOptimizer imageOptimizer;
+  private final PublishingStatistics statistics;
+
+  public EmailImageEmbedder(EmbeddedImageCache imageCache, DataUriEncoder dataUriEncoder,
+      ImageOptimizer imageOptimizer, PublishingStatistics statistics) {
+    this.imageCache = imageCache;
+    this.dataUriEncoder = dataUriEncoder;
+    this.imageOptimizer = imageOptimizer;
+    this.statistics = statistics;
+  }
+
+  public static EmailImageEmbedder defaultEmbedder() {
+    return new EmailImageEmbedder(EmbeddedImageCache.disabled(), DataUriEncoder.unlimited(), null,
+        new PublishingStatistics());
+  }
+
+  public EmbeddedImage embed(TemplateFile imageFile) throws IOException {
+    return imageCache.get(imageFile, this::encode);
+  }
+
+  private EmbeddedImage encode(TemplateFile imageFile) throws IOException {
+    if (imageOptimizer == null) {
+      return new EmbeddedImage(dataUriEncoder.encode(imageFile, DEFAULT_MIME_TYPE), 0);
+    }
+    dataUriEncoder.verifyAssetSize(imageFile.getName(), imageFile.getSize());
+    var optimized = imageOptimizer.optimize(imageFile.readAllBytes(), imageFile.getName());
+    var bytesSaved = imageFile.getSize() - optimized.getContent().length;
+    statistics.add(BYTES_SAVED_COUNTER, bytesSaved);
+    return new EmbeddedImage(
+        dataUriEncoder.encode(optimized.getContent(), imageFile.getName(),
+            optimized.getMimeType()),
+        bytesSaved);
+  }
+}
@@ -19,82 +19,131 @@ package com.epam.digital.data.platform.notification.service;
 import com.epam.digital.data.platform.notification.client.NotificationTemplateRestClient;
 import com.epam.digital.data.platform.notification.dto.NotificationDto;
 import com.epam.digital.data.platform.notification.exceptions.NotificationBuildingException;
+import com.epam.digital.data.platform.notification.model.EmbeddedImage;
+import com.epam.digital.data.platform.notification.model.PublishingPhase;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
-
-import java.io.File;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
-import java.util.Base64;
 
 import static com.epam.digital.data.platform.notification.service.NotificationChannel.EMAIL;
 
 @Slf4j
 public class EmailNotificationLoader extends AbstractGenericNotificationLoader {
 
-  private static final String TEMPLATE_CONTENT_FILE_NAME = "notification.ftlh";
-  private static final String TEMPLATE_METADATA_FILE_NAME = "notification.yml";
+  private static final String TEMPLATE_CONTENT_FILE_NAME = EMAIL.getContentFileName();
+  private static final String TEMPLATE_METADATA_FILE_NAME =
+      NotificationChannel.METADATA_FILE_NAME;
+
+  private final EmailImageEmbedder imageEmbedder;
+  private final EmailStylesheetEmbedder stylesheetEmbedder;
+  private final EmailContentMinifier contentMinifier;
+  private final StreamingHtmlRewriter htmlRewriter;
 
   public EmailNotificationLoader(NotificationTemplateRestClient templateRestClient, ObjectMapper yamlMapper) {
+    this(templateRestClient, yamlMapper, EmailImageEmbedder.defaultEmbedder(),
+        EmailStylesheetEmbedder.defaultEmbedder(), null);
+  }
+
+  public EmailNotificationLoader(NotificationTemplateRestClient templateRestClient,
+      ObjectMapper yamlMapper, EmailImageEmbedder imageEmbedder,
+      EmailStylesheetEmbedder stylesheetEmbedder, EmailContentMinifier contentMinifier) {
+    this(templateRestClient, yamlMapper, imageEmbedder, stylesheetEmbedder, contentMinifier, null);
+  }
+
+  /**
+   * @param contentMinifier minifier of the resulting HTML and CSS, {@code null} to keep the
+   *                        content formatting
+   * @param htmlRewriter    streaming rewriter used instead of a Jsoup document, {@code null} to
+   *                        rewrite the document; cannot be combined with minification and CSS
+   *                        pruning
+   */
+  public EmailNotificationLoader(NotificationTemplateRestClient templateRestClient,
+      ObjectMapper yamlMapper, EmailImageEmbedder imageEmbedder,
+      EmailStylesheetEmbedder stylesheetEmbedder, EmailContentMinifier contentMinifier,
+      StreamingHtmlRewriter htmlRewriter) {
     super(templateRestClient, yamlMapper);
+    this.imageEmbedder = imageEmbedder;
+    this.stylesheetEmbedder = stylesheetEmbedder;
+    this.contentMinifier = contentMinifier;
+    this.htmlRewriter = htmlRewriter;
   }
 
   @Override
-  public NotificationDto getNotificationDto(File dir) throws IOException {
+  public NotificationDto getNotificationDto(TemplateDirectory dir) throws IOException {
     log.info("Processing email template {}", dir.getName());
-    var indexFile = Path.of(dir.getPath(), TEMPLATE_CONTENT_FILE_NAME).toFile();
-    var htmlString = FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8);
-    var document = Jsoup.parse(htmlString);
-    document.outputSettings().syntax(Document.OutputSettings.Syntax.xml);
-
-    embedImagesToHtml(document, dir);
-    embedStyleToHtml(document, dir);
-
-    var templateMetadataFile = Path.of(dir.getPath(), TEMPLATE_METADATA_FILE_NAME).toFile();
+    var content = htmlRewriter == null ? rewriteDocument(dir) : rewriteStream(dir);
+    var templateMetadataFile = dir.getFile(TEMPLATE_METADATA_FILE_NAME).orElse(null);
 
     return NotificationDto.builder()
         .channel(EMAIL.getChannelName())
         .templateMetadataFile(templateMetadataFile)
-        .content(document.toString())
+        .content(content)
         .build();
   }
 
-  private void embedImagesToHtml(Document htmlDocument, File dir) {
-    for (Element image : htmlDocument.select("img")) {
-      var imageFile = Path.of(dir.getPath(), image.attr("src")).toFile();
-      try {
-        var bytes = FileUtils.readFileToByteArray(imageFile);
-        var base64encodedImage = Base64.getEncoder().encodeToString(bytes);
-        image.attr("src", "data:image/jpeg;base64," + base64encodedImage);
-      } catch (Exception e) {
-        throw new NotificationBuildingException(
-            String.format("Failed to embed picture \"%s\" into template",
-                image.attr("src")), e);
+  private String rewriteDocument(TemplateDirectory dir) throws IOException {
+    var htmlString = dir.getRequiredFile(TEMPLATE_CONTENT_FILE_NAME).readString();
+    var document = inPhase(PublishingPhase.PARSE, dir, () -> Jsoup.parse(htmlString));
+    document.outputSettings().syntax(Document.OutputSettings.Syntax.xml);
+
+    inPhase(PublishingPhase.EMBED, dir, () -> {
+      embedImagesToHtml(document, dir);
+      stylesheetEmbedder.embed(document, dir);
+      if (contentMinifier != null) {
+        contentMinifier.minify(document);
       }
+      return null;
+    });
+    return document.toString();
+  }
+
+  private String rewriteStream(TemplateDirectory dir) throws IOException {
+    var contentFile = dir.getRequiredFile(TEMPLATE_CONTENT_FILE_NAME);
+    var output = new StringWriter((int) Math.min(contentFile.getSize(), Integer.MAX_VALUE));
+    var bytesSaved = new AtomicLong();
+    try (var reader = new InputStreamReader(contentFile.open(), StandardCharsets.UTF_8)) {
+      inPhase(PublishingPhase.EMBED, dir, () -> {
+        htmlRewriter.rewrite(reader, output, src -> {
+          var embeddedImage = embedImage(dir, src);
+          bytesSaved.addAndGet(embeddedImage.getBytesSaved());
+          return embeddedImage.getDataUri();
+        }, href -> stylesheetEmbedder.readStylesheet(dir, href));
+        return null;
+      });
     }
+    logBytesSaved(bytesSaved.get(), dir);
+    return output.toString();
   }
 
-  private void embedStyleToHtml(Document document, File dir) {
-    Elements link = document.select("link");
-    for (Element element : link) {
-      String styleName = element.attr("href");
-      if (styleName != null && !styleName.isEmpty()) {
-        var styleFile = Path.of(dir.getPath(), "css", styleName).toFile();
-        try {
-          document.head().select("link").remove();
-          document.head().select("style").remove();
-          var styleString = FileUtils.readFileToString(styleFile, StandardCharsets.UTF_8);
-          document.head().append("<style>" + styleString + "</style>");
-        } catch (Exception e) {
-          throw new NotificationBuildingException("Failed to embed styles into template", e);
-        }
-      }
+  private void embedImagesToHtml(Document htmlDocument, TemplateDirectory dir) {
+    long bytesSaved = 0;
+    for (Element image : htmlDocument.select("img")) {
+      var embeddedImage = embedImage(dir, image.attr("src"));
+      image.attr("src", embeddedImage.getDataUri());
+      bytesSaved += embeddedImage.getBytesSaved();
+    }
+    logBytesSaved(bytesSaved, dir);
+  }
+
+  private EmbeddedImage embedImage(TemplateDirectory dir, String src) {
+    try {
+      return imageEmbedder.embed(dir.getRequiredFile(src));
+    } catch (Exception e) {
+      throw new NotificationBuildingException(
+          String.format("Failed to embed picture \"%s\" into template", src), e);
+    }
+  }
+
+  private void logBytesSaved(long bytesSaved, TemplateDirectory dir) {
+    if (bytesSaved != 0) {
+      log.info("Image optimization saved {} bytes in template {}", bytesSaved, dir.getName());
     }
   }
 }
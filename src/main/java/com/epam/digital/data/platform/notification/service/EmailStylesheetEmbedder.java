@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.exceptions.NotificationBuildingException;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+ * Replaces all {@code <link>} elements of an email template with a single {@code <style>} element
+ * containing the linked stylesheets from the {@code css} directory in document order.
+ * Stylesheets are served from a size bounded LRU cache keyed by location and validated by size
+ * and modification time, so that the stylesheets shared by the templates of a run or changed
+ * between the runs of the watch and server modes are read once.
+ */
+public class EmailStylesheetEmbedder {
+
+  public static final String HITS_COUNTER = "email.stylesheet-cache.hits";
+  public static final String MISSES_COUNTER = "email.stylesheet-cache.misses";
+
+  private static final long DEFAULT_CACHE_SIZE = 8L * 1024 * 1024;
+
+  private final UnusedCssPruner cssPruner;
+  private final long maxCacheSize;
+  private final PublishingStatistics statistics;
+  private final LinkedHashMap<String, CachedStylesheet> stylesheets =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private long cacheSize;
+
+  public EmailStylesheetEmbedder(UnusedCssPruner cssPruner, PublishingStatistics statistics) {
+    this(cssPruner, DEFAULT_CACHE_SIZE, statistics);
+  }
+
+  /**
+   * @param cssPruner    pruner of style rules not used by the template, {@code null} to embed
+   *                     stylesheets as is
+   * @param maxCacheSize upper bound of the cached stylesheets in characters, zero disables the
+   *                     cache
+   */
+  public EmailStylesheetEmbedder(UnusedCssPruner cssPruner, long maxCacheSize,
+      PublishingStatistics statistics) {
+    this.cssPruner = cssPruner;
+    this.maxCacheSize = maxCacheSize;
+    this.statistics = statistics;
+  }
+
+  public static EmailStylesheetEmbedder defaultEmbedder() {
+    return new EmailStylesheetEmbedder(null, new PublishingStatistics());
+  }
+
+  public void embed(Document document, TemplateDirectory dir) {
+    var links = document.select("link[href]");
+    if (links.isEmpty()) {
+      return;
+    }
+    var styles = new StringBuilder();
+    for (Element link : links) {
+      var styleName = link.attr("href");
+      if (!styleName.isEmpty()) {
+        if (styles.length() > 0) {
+          // a stylesheet without a trailing newline must not run into the next one
+          styles.append('\n');
+        }
+        styles.append(readStylesheet(dir, styleName));
+      }
+    }
+    links.remove();
+
+    var css = cssPruner == null ? styles.toString() : cssPruner.prune(styles.toString(), document);
+    document.head().appendElement("style").appendChild(new DataNode(css));
+  }
+
+  /**
+   * @param styleName name of the stylesheet in the {@code css} directory of the template
+   */
+  public String readStylesheet(TemplateDirectory dir, String styleName) {
+    try {
+      return read(dir.getRequiredFile(TemplateReferences.getStylesheetPath(styleName)));
+    } catch (Exception e) {
+      throw new NotificationBuildingException(
+          String.format("Failed to embed style \"%s\" into template", styleName), e);
+    }
+  }
+
+  private String read(TemplateFile styleFile) throws IOException {
+    var path = styleFile.getLocation();
+    var length = styleFile.getSize();
+    var lastModified = styleFile.getLastModified();
+    var cached = get(path);
+    if (cached != null && cached.length == length && cached.lastModified == lastModified) {
+      statistics.increment(HITS_COUNTER);
+      return cached.content;
+    }
+    statistics.increment(MISSES_COUNTER);
+    var content = styleFile.readString();
+    put(path, new CachedStylesheet(content, length, lastModified));
+    return content;
+  }
+
+  private synchronized CachedStylesheet get(String path) {
+    return stylesheets.get(path);
+  }
+
+  private synchronized void put(String path, CachedStylesheet stylesheet) {
+    var stylesheetSize = stylesheet.content.length();
+    if (stylesheetSize > maxCacheSize) {
+      return;
+    }
+    var replaced = stylesheets.put(path, stylesheet);
+    cacheSize += stylesheetSize - (replaced == null ? 0 : replaced.content.length());
+    var iterator = stylesheets.values().iterator();
+    while (cacheSize > maxCacheSize && iterator.hasNext()) {
+      cacheSize -= iterator.next().content.length();
+      iterator.remove();
+    }
+  }
+
+  private static class CachedStylesheet {
+
+    private final String content;
+    private final long length;
+    private final long lastModified;
+
+    private CachedStylesheet(String content, long length, long lastModified) {
+      this.content = content;
+      this.length = length;
+      this.lastModified = lastModified;
+    }
+  }
+}
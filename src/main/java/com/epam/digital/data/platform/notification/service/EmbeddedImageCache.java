@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.model.EmbeddedImage;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Size bounded LRU cache of embedded images keyed by the SHA-256 of the image content, so the
+ * same image used by many templates is encoded only once. Content hashes are memoized per file
+ * location, size and modification time while the image of the file is cached, and are dropped
+ * when the image is evicted.
+ */
+public class EmbeddedImageCache {
+
+  public static final String HITS_COUNTER = "email.image-cache.hits";
+  public static final String MISSES_COUNTER = "email.image-cache.misses";
+
+  private final long maxSize;
+  private final PublishingStatistics statistics;
+  private final Map<String, FileHash> contentHashes = new HashMap<>();
+  private final LinkedHashMap<String, CachedImage> images =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private long size;
+
+  public EmbeddedImageCache(long maxSize, PublishingStatistics statistics) {
+    this.maxSize = maxSize;
+    this.statistics = statistics;
+  }
+
+  public static EmbeddedImageCache disabled() {
+    return new EmbeddedImageCache(0, new PublishingStatistics());
+  }
+
+  public EmbeddedImage get(TemplateFile imageFile, ImageEncoder encoder) throws IOException {
+    if (maxSize <= 0) {
+      return encoder.encode(imageFile);
+    }
+    var fileKey = new FileKey(imageFile);
+    var contentHash = getContentHash(fileKey);
+    if (contentHash == null) {
+      try (var inputStream = imageFile.open()) {
+        contentHash = DigestUtils.sha256Hex(inputStream);
+      }
+    }
+    var cached = get(contentHash, fileKey);
+    if (cached != null) {
+      statistics.increment(HITS_COUNTER);
+      return cached;
+    }
+    statistics.increment(MISSES_COUNTER);
+    var image = encoder.encode(imageFile);
+    put(contentHash, fileKey, image);
+    return image;
+  }
+
+  private synchronized String getContentHash(FileKey fileKey) {
+    var fileHash = contentHashes.get(fileKey.path);
+    return fileHash != null && fileHash.fileKey.equals(fileKey) ? fileHash.contentHash : null;
+  }
+
+  private synchronized EmbeddedImage get(String contentHash, FileKey fileKey) {
+    var cached = images.get(contentHash);
+    if (cached == null) {
+      return null;
+    }
+    memoize(fileKey, contentHash, cached);
+    return cached.image;
+  }
+
+  private synchronized void put(String contentHash, FileKey fileKey, EmbeddedImage image) {
+    var imageSize = image.getDataUri().length();
+    if (imageSize > maxSize) {
+      return;
+    }
+    var cached = images.get(contentHash);
+    if (cached == null) {
+      cached = new CachedImage(image);
+      images.put(contentHash, cached);
+      size += imageSize;
+    }
+    memoize(fileKey, contentHash, cached);
+    var iterator = images.entrySet().iterator();
+    while (size > maxSize && iterator.hasNext()) {
+      var evicted = iterator.next();
+      size -= evicted.getValue().image.getDataUri().length();
+      iterator.remove();
+      for (var location : evicted.getValue().locations) {
+        var fileHash = contentHashes.get(location);
+        if (fileHash != null && fileHash.contentHash.equals(evicted.getKey())) {
+          contentHashes.remove(location);
+        }
+      }
+    }
+  }
+
+  private void memoize(FileKey fileKey, String contentHash, CachedImage cached) {
+    contentHashes.put(fileKey.path, new FileHash(fileKey, contentHash));
+    cached.locations.add(fileKey.path);
+  }
+
+  @FunctionalInterface
+  public interface ImageEncoder {
+
+    EmbeddedImage encode(TemplateFile imageFile) throws IOException;
+  }
+
+  private static class FileKey {
+
+    private final String path;
+    private final long length;
+    private final long lastModified;
+
+    private FileKey(TemplateFile file) {
+      this.path = file.getLocation();
+      this.length = file.getSize();
+      this.lastModified = file.getLastModified();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof FileKey)) {
+        return false;
+      }
+      var fileKey = (FileKey) o;
+      return length == fileKey.length && lastModified == fileKey.lastModified
+          && path.equals(fileKey.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, length, lastModified);
+    }
+  }
+
+  private static class FileHash {
+
+    private final FileKey fileKey;
+    private final String contentHash;
+
+    private FileHash(FileKey fileKey, String contentHash) {
+      this.fileKey = fileKey;
+      this.contentHash = contentHash;
+    }
+  }
+
+  private static class CachedImage {
+
+    private final EmbeddedImage image;
+    private final Set<String> locations = new HashSet<>();
+
+    private CachedImage(EmbeddedImage image) {
+      this.image = image;
+    }
+  }
+}
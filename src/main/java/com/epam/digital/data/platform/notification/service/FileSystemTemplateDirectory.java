@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Template directory on disk.
+ */
+public class FileSystemTemplateDirectory implements TemplateDirectory {
+
+  private final Path root;
+
+  public FileSystemTemplateDirectory(File dir) {
+    this.root = dir.toPath();
+  }
+
+  @Override
+  public String getName() {
+    return root.getFileName().toString();
+  }
+
+  @Override
+  public Optional<TemplateFile> getFile(String path) {
+    var file = root.resolve(path).normalize();
+    return Files.isRegularFile(file) ? Optional.of(new FileSystemTemplateFile(file))
+        : Optional.empty();
+  }
+
+  @Override
+  public List<TemplateFile> getFiles() throws IOException {
+    try (var files = Files.walk(root)) {
+      return files.filter(Files::isRegularFile)
+          .sorted()
+          .map(FileSystemTemplateFile::new)
+          .collect(Collectors.toList());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return root.toString();
+  }
+
+  private class FileSystemTemplateFile implements TemplateFile {
+
+    private final Path file;
+
+    private FileSystemTemplateFile(Path file) {
+      this.file = file;
+    }
+
+    @Override
+    public String getPath() {
+      return root.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    @Override
+    public String getLocation() {
+      return file.toAbsolutePath().toString();
+    }
+
+    @Override
+    public long getSize() {
+      return file.toFile().length();
+    }
+
+    @Override
+    public long getLastModified() {
+      return file.toFile().lastModified();
+    }
+
+    @Override
+    public InputStream open() throws IOException {
+      return Files.newInputStream(file);
+    }
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pure Java (ImageIO) optimization of email images: detects the real image type, downscales
+ * images exceeding the configured dimensions and keeps the smallest of the original, PNG and
+ * JPEG encodings. Animated or unsupported formats are passed through unchanged.
+ */
+@Slf4j
+public class ImageOptimizer {
+
+  public static final String PNG = "image/png";
+  public static final String JPEG = "image/jpeg";
+  public static final String GIF = "image/gif";
+  public static final String BMP = "image/bmp";
+  public static final String WEBP = "image/webp";
+  public static final String SVG = "image/svg+xml";
+
+  private final int maxWidth;
+  private final int maxHeight;
+  private final float jpegQuality;
+
+  public ImageOptimizer(int maxWidth, int maxHeight, float jpegQuality) {
+    this.maxWidth = maxWidth;
+    this.maxHeight = maxHeight;
+    this.jpegQuality = jpegQuality;
+  }
+
+  /**
+   * Optimization only reduces the size, so an image that cannot be decoded or re-encoded, e.g. a
+   * CMYK JPEG, is returned as is.
+   */
+  public OptimizedImage optimize(byte[] original, String fileName) {
+    var mimeType = detectMimeType(original, fileName);
+    if (!PNG.equals(mimeType) && !JPEG.equals(mimeType) && !BMP.equals(mimeType)) {
+      return OptimizedImage.original(original, mimeType);
+    }
+    try {
+      return reencode(original, fileName, mimeType);
+    } catch (IOException e) {
+      log.warn("Image {} could not be optimized, embedding it as is: {}", fileName,
+          e.getMessage());
+      return OptimizedImage.original(original, mimeType);
+    }
+  }
+
+  private OptimizedImage reencode(byte[] original, String fileName, String mimeType)
+      throws IOException {
+    var image = ImageIO.read(new ByteArrayInputStream(original));
+    if (image == null) {
+      log.warn("Image {} could not be decoded, embedding it as is", fileName);
+      return OptimizedImage.original(original, mimeType);
+    }
+
+    var scaled = downscale(image);
+    var best = scaled == image && !BMP.equals(mimeType)
+        ? OptimizedImage.original(original, mimeType)
+        : null;
+    best = smaller(best, write(scaled, "png").map(bytes -> new OptimizedImage(bytes, PNG)));
+    if (!scaled.getColorModel().hasAlpha()) {
+      best = smaller(best, writeJpeg(scaled).map(bytes -> new OptimizedImage(bytes, JPEG)));
+    }
+    return best == null ? OptimizedImage.original(original, mimeType) : best;
+  }
+
+  /**
+   * Detects image type by the file signature, falling back to the file name extension.
+   */
+  public static String detectMimeType(byte[] content, String fileName) {
+    if (startsWith(content, 0x89, 'P', 'N', 'G')) {
+      return PNG;
+    }
+    if (startsWith(content, 0xFF, 0xD8, 0xFF)) {
+      return JPEG;
+    }
+    if (startsWith(content, 'G', 'I', 'F', '8')) {
+      return GIF;
+    }
+    if (startsWith(content, 'B', 'M')) {
+      return BMP;
+    }
+    if (startsWith(content, 'R', 'I', 'F', 'F') && content.length >= 12
+        && new String(content, 8, 4, StandardCharsets.US_ASCII).equals("WEBP")) {
+      return WEBP;
+    }
+    var head = new String(content, 0, Math.min(content.length, 256), StandardCharsets.UTF_8);
+    if (head.contains("<svg")) {
+      return SVG;
+    }
+    return Optional.ofNullable(URLConnection.guessContentTypeFromName(fileName)).orElse(JPEG);
+  }
+
+  private BufferedImage downscale(BufferedImage image) {
+    var scale = Math.min(1.0, Math.min(
+        (double) maxWidth / image.getWidth(), (double) maxHeight / image.getHeight()));
+    if (scale >= 1.0) {
+      return image;
+    }
+    var width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+    var height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+    var type = image.getColorModel().hasAlpha()
+        ? BufferedImage.TYPE_INT_ARGB
+        : BufferedImage.TYPE_INT_RGB;
+    var scaled = new BufferedImage(width, height, type);
+    var graphics = scaled.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+          RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(image, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    return scaled;
+  }
+
+  private Optional<byte[]> write(BufferedImage image, String format) throws IOException {
+    var output = new ByteArrayOutputStream();
+    return ImageIO.write(image, format, output) ? Optional.of(output.toByteArray())
+        : Optional.empty();
+  }
+
+  private Optional<byte[]> writeJpeg(BufferedImage image) throws IOException {
+    var writers = ImageIO.getImageWritersByFormatName("jpeg");
+    if (!writers.hasNext()) {
+      return Optional.empty();
+    }
+    var writer = writers.next();
+    var output = new ByteArrayOutputStream();
+    try (var imageOutput = ImageIO.createImageOutputStream(output)) {
+      writer.setOutput(imageOutput);
+      var param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(jpegQuality);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return Optional.of(output.toByteArray());
+  }
+
+  private static OptimizedImage smaller(OptimizedImage current,
+      Optional<OptimizedImage> candidate) {
+    return candidate
+        .filter(image -> current == null || image.getContent().length < current.getContent().length)
+        .orElse(current);
+  }
+
+  private static boolean startsWith(byte[] content, int... signature) {
+    if (content.length < signature.length) {
+      return false;
+    }
+    for (int i = 0; i < signature.length; i++) {
+      if ((content[i] & 0xFF) != signature[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Getter
+  public static class OptimizedImage {
+
+    private final byte[] content;
+    private final String mimeType;
+
+    private OptimizedImage(byte[] content, String mimeType) {
+      this.content = content;
+      this.mimeType = mimeType;
+    }
+
+    private static OptimizedImage original(byte[] content, String mimeType) {
+      return new OptimizedImage(content, mimeType);
+    }
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Template directory whose files are held in memory, e.g. a template directory read from a
+ * template archive. Files too large to be held in memory may be kept in temporary files instead.
+ *
+ * <p>A template directory that is part of a tree, like the template directories of an archive,
+ * resolves paths leaving the directory against the tree, the way {@code ../shared/brand.css} is
+ * resolved against the notifications directory on disk.
+ */
+public class InMemoryTemplateDirectory implements TemplateDirectory {
+
+  private final String location;
+  private final String name;
+  private final String treePath;
+  private final Function<String, Optional<TemplateFile>> tree;
+  private final Map<String, TemplateFile> files = new TreeMap<>();
+
+  /**
+   * @param location location of the template directory the file locations are based on
+   */
+  public InMemoryTemplateDirectory(String location, String name) {
+    this(location, name, null, path -> Optional.empty());
+  }
+
+  /**
+   * @param treePath path of the template directory in the tree, e.g. {@code email/Welcome}
+   * @param tree     lookup of the files of the tree by their normalized path in the tree
+   */
+  public InMemoryTemplateDirectory(String location, String name, String treePath,
+      Function<String, Optional<TemplateFile>> tree) {
+    this.location = location;
+    this.name = name;
+    this.treePath = treePath;
+    this.tree = tree;
+  }
+
+  public void addFile(String path, byte[] content, long lastModified) {
+    var normalizedPath = normalizeFilePath(path);
+    files.put(normalizedPath, new InMemoryTemplateFile(normalizedPath, content, lastModified));
+  }
+
+  /**
+   * Adds a file kept in a temporary file rather than in memory.
+   */
+  public void addFile(String path, Path file, long size, long lastModified) {
+    var normalizedPath = normalizeFilePath(path);
+    files.put(normalizedPath, new SpilledTemplateFile(normalizedPath, file, size, lastModified));
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Optional<TemplateFile> getFile(String path) {
+    var normalizedPath = normalize(path);
+    if (normalizedPath.isPresent()) {
+      return normalizedPath.map(files::get);
+    }
+    if (treePath == null) {
+      return Optional.empty();
+    }
+    // files shared between templates are outside of the template directory
+    return normalize(treePath + "/" + path)
+        .flatMap(pathInTree -> tree.apply(pathInTree)
+            .map(file -> new ResolvedTemplateFile(relativize(pathInTree), file)));
+  }
+
+  @Override
+  public List<TemplateFile> getFiles() {
+    return new ArrayList<>(files.values());
+  }
+
+  @Override
+  public String toString() {
+    return location;
+  }
+
+  /**
+   * Resolves {@code .} and {@code ..} segments of a relative path, a path leaving the template
+   * directory has no file.
+   */
+  static Optional<String> normalize(String path) {
+    var segments = new ArrayDeque<String>();
+    for (String segment : path.replace('\\', '/').split("/")) {
+      if (segment.isEmpty() || ".".equals(segment)) {
+        continue;
+      }
+      if ("..".equals(segment)) {
+        if (segments.pollLast() == null) {
+          return Optional.empty();
+        }
+      } else {
+        segments.addLast(segment);
+      }
+    }
+    return segments.isEmpty() ? Optional.empty() : Optional.of(String.join("/", segments));
+  }
+
+  private static String normalizeFilePath(String path) {
+    return normalize(path)
+        .orElseThrow(() -> new IllegalArgumentException("Invalid template file path " + path));
+  }
+
+  /**
+   * @return path of a file of the tree relative to this template directory
+   */
+  private String relativize(String pathInTree) {
+    var base = treePath.split("/");
+    var target = pathInTree.split("/");
+    var common = 0;
+    while (common < base.length && common < target.length - 1
+        && base[common].equals(target[common])) {
+      common++;
+    }
+    var result = new StringBuilder("../".repeat(base.length - common));
+    for (int i = common; i < target.length; i++) {
+      result.append(target[i]).append(i < target.length - 1 ? "/" : "");
+    }
+    return result.toString();
+  }
+
+  private class InMemoryTemplateFile implements TemplateFile {
+
+    private final String path;
+    private final byte[] content;
+    private final long lastModified;
+
+    private InMemoryTemplateFile(String path, byte[] content, long lastModified) {
+      this.path = path;
+      this.content = content;
+      this.lastModified = lastModified;
+    }
+
+    @Override
+    public String getPath() {
+      return path;
+    }
+
+    @Override
+    public String getLocation() {
+      return location + "/" + path;
+    }
+
+    @Override
+    public long getSize() {
+      return content.length;
+    }
+
+    @Override
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    @Override
+    public InputStream open() {
+      return new ByteArrayInputStream(content);
+    }
+  }
+
+  private class SpilledTemplateFile implements TemplateFile {
+
+    private final String path;
+    private final Path file;
+    private final long size;
+    private final long lastModified;
+
+    private SpilledTemplateFile(String path, Path file, long size, long lastModified) {
+      this.path = path;
+      this.file = file;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    @Override
+    public String getPath() {
+      return path;
+    }
+
+    @Override
+    public String getLocation() {
+      return location + "/" + path;
+    }
+
+    @Override
+    public long getSize() {
+      return size;
+    }
+
+    @Override
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    @Override
+    public InputStream open() throws IOException {
+      return Files.newInputStream(file);
+    }
+  }
+
+  /**
+   * File of another directory of the tree as seen from this template directory.
+   */
+  private static class ResolvedTemplateFile implements TemplateFile {
+
+    private final String path;
+    private final TemplateFile file;
+
+    private ResolvedTemplateFile(String path, TemplateFile file) {
+      this.path = path;
+      this.file = file;
+    }
+
+    @Override
+    public String getPath() {
+      return path;
+    }
+
+    @Override
+    public String getLocation() {
+      return file.getLocation();
+    }
+
+    @Override
+    public long getSize() {
+      return file.getSize();
+    }
+
+    @Override
+    public long getLastModified() {
+      return file.getLastModified();
+    }
+
+    @Override
+    public InputStream open() throws IOException {
+      return file.open();
+    }
+  }
+}
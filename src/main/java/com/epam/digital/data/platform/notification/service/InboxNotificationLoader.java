@@ -18,32 +18,28 @@ package com.epam.digital.data.platform.notification.service;
 import com.epam.digital.data.platform.notification.client.NotificationTemplateRestClient;
 import com.epam.digital.data.platform.notification.dto.NotificationDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Path;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.FileUtils;
 
 import static com.epam.digital.data.platform.notification.service.NotificationChannel.INBOX;
 
 @Slf4j
 public class InboxNotificationLoader extends AbstractGenericNotificationLoader {
 
-  private static final String TEMPLATE_CONTENT_FILE_NAME = "notification.ftl";
-  private static final String TEMPLATE_METADATA_FILE_NAME = "notification.yml";
+  private static final String TEMPLATE_CONTENT_FILE_NAME = INBOX.getContentFileName();
+  private static final String TEMPLATE_METADATA_FILE_NAME =
+      NotificationChannel.METADATA_FILE_NAME;
 
   public InboxNotificationLoader(NotificationTemplateRestClient templateRestClient, ObjectMapper yamlMapper) {
     super(templateRestClient, yamlMapper);
   }
 
   @Override
-  public NotificationDto getNotificationDto(File dir) throws IOException {
+  public NotificationDto getNotificationDto(TemplateDirectory dir) throws IOException {
     log.info("Processing inbox template {}", dir.getName());
-    var indexFile = Path.of(dir.getPath(), TEMPLATE_CONTENT_FILE_NAME).toFile();
-    var content = FileUtils.readFileToString(indexFile, StandardCharsets.UTF_8);
+    var content = dir.getRequiredFile(TEMPLATE_CONTENT_FILE_NAME).readString();
 
-    var templateMetadataFile = Path.of(dir.getPath(), TEMPLATE_METADATA_FILE_NAME).toFile();
+    var templateMetadataFile = dir.getFile(TEMPLATE_METADATA_FILE_NAME).orElse(null);
 
     return NotificationDto.builder()
         .content(content)
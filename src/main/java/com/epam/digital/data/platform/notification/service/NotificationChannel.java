@@ -1,18 +1,44 @@
 package com.epam.digital.data.platform.notification.service;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 public enum NotificationChannel {
 
-  EMAIL("email"),
-  DIIA("diia"),
-  INBOX("inbox");
+  EMAIL("email", "notification.ftlh"),
+  DIIA("diia", "notification.diia"),
+  INBOX("inbox", "notification.ftl");
+
+  public static final String METADATA_FILE_NAME = "notification.yml";
 
   private final String channelName;
+  private final String contentFileName;
 
-  NotificationChannel(String channelName) {
+  NotificationChannel(String channelName, String contentFileName) {
     this.channelName = channelName;
+    this.contentFileName = contentFileName;
   }
 
   public String getChannelName() {
     return channelName;
   }
+
+  public String getContentFileName() {
+    return contentFileName;
+  }
+
+  /**
+   * @return whether the file name is the name of a template content file of any channel or of the
+   * metadata file, as opposed to the name of an asset
+   */
+  public static boolean isTemplateFile(String fileName) {
+    return METADATA_FILE_NAME.equals(fileName) || Arrays.stream(values())
+        .anyMatch(channel -> channel.contentFileName.equals(fileName));
+  }
+
+  public static Optional<NotificationChannel> of(String channelName) {
+    return Arrays.stream(values())
+        .filter(channel -> channel.channelName.equals(channelName))
+        .findFirst();
+  }
 }
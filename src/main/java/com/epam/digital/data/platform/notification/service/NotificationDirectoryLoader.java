@@ -20,6 +20,9 @@ import java.io.File;
 
 public interface NotificationDirectoryLoader {
 
-  void loadDir(File dir);
+  void load(TemplateDirectory dir);
 
+  default void loadDir(File dir) {
+    load(TemplateDirectory.of(dir));
+  }
 }
@@ -0,0 +1,661 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.exceptions.PublishingFailedException;
+import com.epam.digital.data.platform.notification.exceptions.TemplateValidationException;
+import com.epam.digital.data.platform.notification.exceptions.TemplatePublishingException;
+import com.epam.digital.data.platform.notification.model.PublishingPhase;
+import com.epam.digital.data.platform.notification.model.PublishingSummary;
+import com.epam.digital.data.platform.notification.model.TemplateFailure;
+import com.epam.digital.data.platform.notification.properties.AppProperties;
+import com.epam.digital.data.platform.notification.properties.PublishingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongBiFunction;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Walks the notifications directory or template archive and publishes every template directory
+ * with the loader of its channel, either sequentially or over a bounded pool of workers.
+ */
+@Slf4j
+@Service
+public class NotificationPublishingService {
+
+  private final AppProperties appProperties;
+  private final PublishingProperties publishingProperties;
+  private final Map<String, NotificationDirectoryLoader> templateDirLoaders;
+  private final TemplateDigestCalculator digestCalculator;
+  private final ObjectMapper objectMapper;
+  private final PublishingStatistics statistics;
+  private final TemplateValidator templateValidator;
+
+  public NotificationPublishingService(
+      AppProperties appProperties,
+      PublishingProperties publishingProperties,
+      @Qualifier("templateDirLoaders")
+          Map<String, NotificationDirectoryLoader> templateDirLoaders,
+      TemplateDigestCalculator digestCalculator,
+      ObjectMapper objectMapper,
+      PublishingStatistics statistics,
+      TemplateValidator templateValidator) {
+    this.appProperties = appProperties;
+    this.publishingProperties = publishingProperties;
+    this.templateDirLoaders = templateDirLoaders;
+    this.digestCalculator = digestCalculator;
+    this.objectMapper = objectMapper;
+    this.statistics = statistics;
+    this.templateValidator = templateValidator;
+  }
+
+  public PublishingSummary publish() {
+    return publish(false);
+  }
+
+  /**
+   * Publishes all templates. When resuming, templates recorded in the checkpoint journal of an
+   * interrupted run are skipped unless they have changed since.
+   */
+  public PublishingSummary publish(boolean resume) {
+    return publish(PublishingRequest.builder().resume(resume).build());
+  }
+
+  /**
+   * Publishes the templates accepted by the filter, e.g. the templates affected by a change in
+   * watch mode.
+   *
+   * @param templateFilter predicate over the channel name and the template directory
+   */
+  public PublishingSummary publish(boolean resume,
+      BiPredicate<String, TemplateDirectory> templateFilter) {
+    return publish(PublishingRequest.builder()
+        .resume(resume)
+        .templateFilter(templateFilter)
+        .build());
+  }
+
+  /**
+   * Runs one publishing at a time: a run requested from the publish server waits for a run of
+   * watch mode and vice versa, because they would publish the same templates and share the state
+   * files of the configured tree.
+   */
+  public synchronized PublishingSummary publish(PublishingRequest request) {
+    var shard = getShard(request);
+    var source = getSource(request);
+    var summary = new PublishingSummary();
+    var countersBefore = statistics.snapshot();
+    var manifestFile = stateFileName(publishingProperties.getManifestFile(), source, shard);
+    var manifest = publishingProperties.isIncremental()
+        ? PublishManifest.load(Path.of(manifestFile), objectMapper)
+        : null;
+    var journalFile = stateFileName(publishingProperties.getCheckpoint().getFile(), source, shard);
+    var journal = openJournal(request.isResume(), journalFile);
+    var timings = loadTimings(shard);
+    var succeeded = false;
+    try {
+      publish(new PublishingRun(summary, manifest, journal, timings, request.getListener()),
+          request, source, shard);
+      succeeded = summary.getFailures().isEmpty();
+    } finally {
+      saveManifest(manifest, manifestFile);
+      saveTimings(timings, shard);
+      closeJournal(journal, succeeded, journalFile);
+    }
+
+    summary.finish(countersSince(countersBefore), statistics.gauges());
+    if (shard.isSharded()) {
+      log.info("Publishing of shard {} finished: {}", shard, summary);
+    } else {
+      log.info("Publishing finished: {}", summary);
+    }
+    writeSummary(summary, shard);
+    if (!summary.getFailures().isEmpty()) {
+      log.error("Failed to publish {} templates:{}{}", summary.getFailures().size(),
+          System.lineSeparator(), summary.getFailureReport());
+      throw new PublishingFailedException(summary);
+    }
+    return summary;
+  }
+
+  private Map<String, Long> countersSince(Map<String, Long> countersBefore) {
+    var result = new TreeMap<String, Long>();
+    statistics.snapshot().forEach((name, value) -> {
+      var delta = value - countersBefore.getOrDefault(name, 0L);
+      if (delta != 0) {
+        result.put(name, delta);
+      }
+    });
+    return result;
+  }
+
+  private String getSource(PublishingRequest request) {
+    return Optional.ofNullable(request.getSource())
+        .orElseGet(appProperties::getNotificationsDirectoryName);
+  }
+
+  /**
+   * Name of a state file of the run, e.g. the manifest, for the shard. A source other than the
+   * configured one gets state files of its own, so that publishing another tree on request cannot
+   * replace the checkpoint journal or manifest of the configured tree.
+   */
+  private String stateFileName(String fileName, String source, TemplateShard shard) {
+    var sourcePath = Path.of(source).toAbsolutePath().normalize();
+    var configuredPath = Path.of(appProperties.getNotificationsDirectoryName())
+        .toAbsolutePath().normalize();
+    if (!sourcePath.equals(configuredPath)) {
+      var sourceKey = DigestUtils.sha256Hex(sourcePath.toString()).substring(0, 12);
+      fileName = TemplateShard.withSuffix(fileName, "-source-" + sourceKey);
+    }
+    return shard.fileName(fileName);
+  }
+
+  private TemplateShard getShard(PublishingRequest request) {
+    if (request.getShard() != null) {
+      return request.getShard();
+    }
+    var shard = publishingProperties.getShard();
+    return TemplateShard.of(shard.getIndex(), shard.getCount());
+  }
+
+  /**
+   * Writes the summary of the run as JSON, one file per shard, so that the results of the
+   * instances publishing a sharded tree can be collected after all of them finished.
+   */
+  private void writeSummary(PublishingSummary summary, TemplateShard shard) {
+    var summaryFile = publishingProperties.getSummaryFile();
+    if (summaryFile == null || summaryFile.isBlank()) {
+      return;
+    }
+    var file = Path.of(shard.fileName(summaryFile));
+    var report = new LinkedHashMap<String, Object>();
+    report.put("shard", shard.toString());
+    report.put("published", summary.getPublishedCount());
+    report.put("publishedByChannel", summary.getPublishedByChannel());
+    report.put("skipped", summary.getSkippedCount());
+    report.put("resumed", summary.getResumedCount());
+    report.put("failures", summary.getFailures().stream()
+        .map(TemplateFailure::toString)
+        .collect(Collectors.toList()));
+    report.put("durationMillis", summary.getDuration().toMillis());
+    if (summary.getMakespan() != null) {
+      report.put("makespanMillis", summary.getMakespan().toMillis());
+      report.put("makespanLowerBoundMillis", summary.getMakespanLowerBound().toMillis());
+    }
+    report.put("counters", summary.getCounters());
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+    } catch (IOException e) {
+      log.error("Failed to write publishing summary {}", file, e);
+    }
+  }
+
+  private void publish(PublishingRun run, PublishingRequest request, String source,
+      TemplateShard shard) {
+    try (var index = loadTemplateIndex(source, isSourceRequired(request, shard))) {
+      var channelTemplates = getChannelTemplates(index, request, shard);
+      run.listener.templatesFound(channelTemplates.stream()
+          .mapToInt(templates -> templates.templateDirs.size())
+          .sum());
+
+      if (publishingProperties.isValidate()) {
+        validate(channelTemplates);
+      }
+      if (publishingProperties.getParallelism() > 1) {
+        publishInParallel(channelTemplates, run);
+      } else {
+        channelTemplates.forEach(templates -> publishSequentially(templates, run));
+      }
+    }
+  }
+
+  @SneakyThrows
+  private void validate(List<ChannelTemplates> channelTemplates) {
+    var tasks = new ArrayList<Callable<List<TemplateFailure>>>();
+    for (ChannelTemplates templates : channelTemplates) {
+      var channel = NotificationChannel.of(templates.channelName);
+      if (channel.isEmpty()) {
+        continue;
+      }
+      for (TemplateDirectory templateDir : templates.templateDirs) {
+        tasks.add(() -> templateValidator.validate(channel.get(), templateDir));
+      }
+    }
+    var executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+        new PublisherThreadFactory());
+    var problems = new ArrayList<TemplateFailure>();
+    try {
+      for (Future<List<TemplateFailure>> result : executor.invokeAll(tasks)) {
+        problems.addAll(result.get());
+      }
+    } catch (ExecutionException e) {
+      throw e.getCause();
+    } finally {
+      executor.shutdownNow();
+    }
+    if (!problems.isEmpty()) {
+      log.error("Validation found {} template problems:{}{}", problems.size(),
+          System.lineSeparator(), problems.stream()
+              .map(problem -> "  " + problem)
+              .collect(Collectors.joining(System.lineSeparator())));
+      throw new TemplateValidationException(problems);
+    }
+    log.info("Validated {} templates", tasks.size());
+  }
+
+  private void saveManifest(PublishManifest manifest, String manifestFile) {
+    if (manifest == null) {
+      return;
+    }
+    try {
+      manifest.save();
+    } catch (IOException e) {
+      log.error("Failed to save publish manifest {}", manifestFile, e);
+    }
+  }
+
+  private boolean isLargestFirst() {
+    return publishingProperties.getParallelism() > 1 && publishingProperties.getScheduling()
+        .getOrder() == PublishingProperties.Scheduling.Order.LARGEST_FIRST;
+  }
+
+  private TemplateTimings loadTimings(TemplateShard shard) {
+    var timingsFile = publishingProperties.getScheduling().getTimingsFile();
+    if (!isLargestFirst() || timingsFile == null || timingsFile.isBlank()) {
+      return null;
+    }
+    return TemplateTimings.load(Path.of(shard.fileName(timingsFile)), objectMapper);
+  }
+
+  private void saveTimings(TemplateTimings timings, TemplateShard shard) {
+    if (timings == null) {
+      return;
+    }
+    try {
+      timings.save();
+    } catch (IOException e) {
+      log.error("Failed to save template timings {}",
+          shard.fileName(publishingProperties.getScheduling().getTimingsFile()), e);
+    }
+  }
+
+  private CheckpointJournal openJournal(boolean resume, String file) {
+    var checkpoint = publishingProperties.getCheckpoint();
+    if (!checkpoint.isEnabled()) {
+      if (resume) {
+        log.warn("Checkpoint journal is disabled, publishing all templates");
+      }
+      return null;
+    }
+    try {
+      return CheckpointJournal.open(Path.of(file), resume, checkpoint.getSyncBatchSize(),
+          checkpoint.getSyncInterval());
+    } catch (IOException e) {
+      log.warn("Failed to open checkpoint journal {}, publishing without it", file, e);
+      return null;
+    }
+  }
+
+  private void closeJournal(CheckpointJournal journal, boolean succeeded, String file) {
+    if (journal == null) {
+      return;
+    }
+    try {
+      if (succeeded) {
+        journal.discard();
+      } else {
+        journal.close();
+      }
+    } catch (IOException e) {
+      log.error("Failed to close checkpoint journal {}", file, e);
+    }
+  }
+
+  private List<ChannelTemplates> getChannelTemplates(TemplateTreeIndex index,
+      PublishingRequest request, TemplateShard shard) {
+    var result = new ArrayList<ChannelTemplates>();
+    index.getChannels().forEach((channelName, templateDirs) -> {
+      // an ordered channel is published in order by the single shard owning all its templates
+      var ordered = publishingProperties.getOrderedChannels().contains(channelName);
+      var selectedDirs = templateDirs.stream()
+          .filter(templateDir -> ordered ? shard.ownsChannel(channelName)
+              : shard.owns(channelName, templateDir.getName()))
+          .filter(templateDir -> request.getTemplateFilter().test(channelName, templateDir))
+          .collect(Collectors.toList());
+      if (!selectedDirs.isEmpty()) {
+        getChannelLoader(channelName).ifPresent(loader ->
+            result.add(new ChannelTemplates(channelName, loader, selectedDirs)));
+      }
+    });
+    if (shard.isSharded()) {
+      log.info("Shard {} selected {} of {} templates", shard, result.stream()
+          .mapToInt(templates -> templates.templateDirs.size())
+          .sum(), index.getTemplateCount());
+    }
+    return result;
+  }
+
+  /**
+   * A missing configured notifications directory publishes nothing, a source that was asked for
+   * explicitly must exist, so that e.g. a publish Job does not succeed without publishing.
+   */
+  private boolean isSourceRequired(PublishingRequest request, TemplateShard shard) {
+    return request.getSource() != null || shard.isSharded()
+        || publishingProperties.isRequireSource();
+  }
+
+  private TemplateTreeIndex loadTemplateIndex(String source, boolean required) {
+    var root = Path.of(source);
+    try {
+      if (TemplateArchiveReader.isArchive(root)) {
+        return new TemplateArchiveReader(appProperties.getArchiveMaxSize().toBytes(),
+            appProperties.getArchiveSpillThreshold().toBytes()).read(root);
+      }
+      if (!Files.isDirectory(root)) {
+        if (required || TemplateArchiveReader.hasArchiveExtension(root)) {
+          throw new NoSuchFileException(root.toString(), null,
+              "notifications directory or template archive does not exist");
+        }
+        log.error("Directory {} does not exist", root);
+        return TemplateTreeIndex.empty();
+      }
+      var index = TemplateTreeIndex.scan(root);
+      log.info("Indexed {} templates in {}", index.getTemplateCount(), root);
+      return index;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read templates from " + root, e);
+    }
+  }
+
+  private Optional<NotificationDirectoryLoader> getChannelLoader(String channelName) {
+    var channelTemplateLoader = templateDirLoaders.get(channelName);
+    if (channelTemplateLoader == null) {
+      log.warn("No template loader for channel {}", channelName);
+    }
+    return Optional.ofNullable(channelTemplateLoader);
+  }
+
+  private void publishSequentially(ChannelTemplates channelTemplates, PublishingRun run) {
+    log.info("Processing of channel {}", channelTemplates.channelName);
+    for (TemplateDirectory templateDir : channelTemplates.templateDirs) {
+      publishTemplate(channelTemplates, templateDir, run);
+    }
+  }
+
+  @SneakyThrows
+  private void publishInParallel(List<ChannelTemplates> channelTemplates, PublishingRun run) {
+    var parallelism = publishingProperties.getParallelism();
+    var workUnits = getWorkUnits(channelTemplates, run);
+    log.info("Publishing templates with {} workers", parallelism);
+    var executor = Executors.newFixedThreadPool(parallelism, new PublisherThreadFactory());
+    var startedAt = System.nanoTime();
+    try {
+      CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+      var futures = new ArrayList<Future<Void>>();
+      for (WorkUnit workUnit : workUnits) {
+        futures.add(completionService.submit(workUnit::run, null));
+      }
+      awaitAll(completionService, futures);
+    } finally {
+      executor.shutdownNow();
+    }
+    var makespan = Duration.ofNanos(System.nanoTime() - startedAt);
+    var lowerBound = Duration.ofNanos(TemplateCostEstimator.lowerBoundNanos(workUnits.stream()
+        .map(workUnit -> workUnit.elapsedNanos)
+        .collect(Collectors.toList()), parallelism));
+    log.info("Parallel publishing took {} ms, lower bound for {} workers is {} ms",
+        makespan.toMillis(), parallelism, lowerBound.toMillis());
+    run.summary.recordSchedule(makespan, lowerBound);
+  }
+
+  /**
+   * Splits the templates into units of work, one per template or one per ordered channel, in the
+   * order they are to be started: longest estimated first, or in the index order.
+   */
+  private List<WorkUnit> getWorkUnits(List<ChannelTemplates> channelTemplates,
+      PublishingRun run) {
+    var estimator = isLargestFirst()
+        ? new TemplateCostEstimator(run.timings, channelTemplates.stream()
+            .collect(Collectors.toMap(templates -> templates.channelName,
+                templates -> templates.templateDirs)))
+        : null;
+    ToLongBiFunction<String, TemplateDirectory> cost = (channelName, templateDir) ->
+        estimator == null ? 0 : estimator.estimateNanos(channelName, templateDir);
+    var workUnits = new ArrayList<WorkUnit>();
+    for (ChannelTemplates templates : channelTemplates) {
+      if (publishingProperties.getOrderedChannels().contains(templates.channelName)) {
+        var channelCost = templates.templateDirs.stream()
+            .mapToLong(templateDir -> cost.applyAsLong(templates.channelName, templateDir))
+            .sum();
+        workUnits.add(new WorkUnit(() -> publishSequentially(templates, run), channelCost));
+      } else {
+        for (TemplateDirectory templateDir : templates.templateDirs) {
+          workUnits.add(new WorkUnit(() -> publishTemplate(templates, templateDir, run),
+              cost.applyAsLong(templates.channelName, templateDir)));
+        }
+      }
+    }
+    if (estimator != null) {
+      workUnits.sort(Comparator.comparingLong((WorkUnit workUnit) -> workUnit.estimatedNanos)
+          .reversed());
+    }
+    return workUnits;
+  }
+
+  private void awaitAll(CompletionService<Void> completionService, List<Future<Void>> futures)
+      throws Throwable {
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        completionService.take().get();
+      }
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw e.getCause();
+    } catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw e;
+    }
+  }
+
+  private void publishTemplate(ChannelTemplates channelTemplates,
+      TemplateDirectory templateDir, PublishingRun run) {
+    try {
+      publishOrSkipTemplate(channelTemplates, templateDir, run);
+    } catch (Exception e) {
+      if (!publishingProperties.isContinueOnError()) {
+        throw e;
+      }
+      var phase = e instanceof TemplatePublishingException
+          ? ((TemplatePublishingException) e).getPhase() : null;
+      var message = e instanceof TemplatePublishingException
+          ? e.getCause().getMessage() : e.getMessage();
+      var failure = new TemplateFailure(channelTemplates.channelName, templateDir.getName(), phase,
+          message);
+      run.summary.recordFailure(failure);
+      run.listener.templateFailed(failure);
+    }
+  }
+
+  private void publishOrSkipTemplate(ChannelTemplates channelTemplates,
+      TemplateDirectory templateDir, PublishingRun run) {
+    var channelName = channelTemplates.channelName;
+    var templateName = templateDir.getName();
+    if (run.manifest == null && run.journal == null) {
+      load(channelTemplates, templateDir, run);
+      run.summary.recordPublished(channelName);
+      run.listener.templatePublished(channelName, templateName);
+      return;
+    }
+    String digest;
+    try {
+      digest = digestCalculator.calculate(channelName, templateDir);
+    } catch (UncheckedIOException e) {
+      throw new TemplatePublishingException(templateName, PublishingPhase.READ, e);
+    }
+    var journal = run.journal;
+    if (journal != null && journal.isCompleted(channelName, templateName, digest)) {
+      log.debug("Template {} of channel {} was published before resume, skipping", templateName,
+          channelName);
+      run.summary.recordResumed();
+      run.listener.templateSkipped(channelName, templateName);
+      return;
+    }
+    if (run.manifest != null && run.manifest.isPublished(channelName, templateName, digest)) {
+      log.debug("Template {} of channel {} is not changed, skipping", templateName, channelName);
+      run.summary.recordSkipped();
+      run.listener.templateSkipped(channelName, templateName);
+      return;
+    }
+    load(channelTemplates, templateDir, run);
+    if (run.manifest != null) {
+      run.manifest.recordPublished(channelName, templateName, digest);
+    }
+    recordInJournal(run, channelName, templateName, digest);
+    run.summary.recordPublished(channelName);
+    run.listener.templatePublished(channelName, templateName);
+  }
+
+  /**
+   * Records the published template in the checkpoint journal. The template is published
+   * already, so a journal that cannot be written is dropped for the rest of the run like one that
+   * cannot be opened, instead of failing the template.
+   */
+  private void recordInJournal(PublishingRun run, String channelName, String templateName,
+      String digest) {
+    var journal = run.journal;
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.record(channelName, templateName, digest);
+    } catch (IOException e) {
+      log.warn("Failed to write checkpoint journal, publishing without it", e);
+      run.journal = null;
+    }
+  }
+
+  /**
+   * Loads the template and records its duration without the time spent waiting for the
+   * notification-service client limiters, which depends on the other templates of the run rather
+   * than on the template. Waits of batched requests sent by another thread are not excluded.
+   */
+  private void load(ChannelTemplates channelTemplates, TemplateDirectory templateDir,
+      PublishingRun run) {
+    var waitedBefore = statistics.getWaitNanos();
+    var startedAt = System.nanoTime();
+    channelTemplates.loader.load(templateDir);
+    if (run.timings != null) {
+      var waited = statistics.getWaitNanos() - waitedBefore;
+      run.timings.record(channelTemplates.channelName, templateDir.getName(),
+          System.nanoTime() - startedAt - waited);
+    }
+  }
+
+  private static class PublishingRun {
+
+    private final PublishingSummary summary;
+    private final PublishManifest manifest;
+    private volatile CheckpointJournal journal;
+    private final TemplateTimings timings;
+    private final PublishingListener listener;
+
+    private PublishingRun(PublishingSummary summary, PublishManifest manifest,
+        CheckpointJournal journal, TemplateTimings timings, PublishingListener listener) {
+      this.summary = summary;
+      this.manifest = manifest;
+      this.journal = journal;
+      this.timings = timings;
+      this.listener = listener;
+    }
+  }
+
+  private static class WorkUnit {
+
+    private final Runnable work;
+    private final long estimatedNanos;
+    private volatile long elapsedNanos;
+
+    private WorkUnit(Runnable work, long estimatedNanos) {
+      this.work = work;
+      this.estimatedNanos = estimatedNanos;
+    }
+
+    private void run() {
+      var startedAt = System.nanoTime();
+      try {
+        work.run();
+      } finally {
+        elapsedNanos = System.nanoTime() - startedAt;
+      }
+    }
+  }
+
+  private static class ChannelTemplates {
+
+    private final String channelName;
+    private final NotificationDirectoryLoader loader;
+    private final List<TemplateDirectory> templateDirs;
+
+    private ChannelTemplates(String channelName, NotificationDirectoryLoader loader,
+        List<TemplateDirectory> templateDirs) {
+      this.channelName = channelName;
+      this.loader = loader;
+      this.templateDirs = templateDirs;
+    }
+  }
+
+  private static class PublisherThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      var thread = new Thread(runnable, "template-publisher-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
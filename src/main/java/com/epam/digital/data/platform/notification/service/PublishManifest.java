@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local record of template digests that were successfully published by previous runs. Keys have
+ * the {@code channel/templateName} form.
+ */
+@Slf4j
+public class PublishManifest {
+
+  private static final TypeReference<Map<String, String>> MANIFEST_TYPE = new TypeReference<>() {};
+
+  private final Path file;
+  private final ObjectMapper objectMapper;
+  private final Map<String, String> digests;
+
+  private PublishManifest(Path file, ObjectMapper objectMapper, Map<String, String> digests) {
+    this.file = file;
+    this.objectMapper = objectMapper;
+    this.digests = new ConcurrentHashMap<>(digests);
+  }
+
+  public static PublishManifest load(Path file, ObjectMapper objectMapper) {
+    if (!Files.isRegularFile(file)) {
+      log.info("Publish manifest {} not existing, all templates will be published", file);
+      return new PublishManifest(file, objectMapper, Map.of());
+    }
+    try {
+      return new PublishManifest(file, objectMapper,
+          objectMapper.readValue(file.toFile(), MANIFEST_TYPE));
+    } catch (IOException e) {
+      log.warn("Publish manifest {} is not readable, all templates will be published", file, e);
+      return new PublishManifest(file, objectMapper, Map.of());
+    }
+  }
+
+  public boolean isPublished(String channel, String templateName, String digest) {
+    return digest.equals(digests.get(key(channel, templateName)));
+  }
+
+  public void recordPublished(String channel, String templateName, String digest) {
+    digests.put(key(channel, templateName), digest);
+  }
+
+  public void save() throws IOException {
+    var parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    var tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    objectMapper.writerWithDefaultPrettyPrinter()
+        .writeValue(tempFile.toFile(), new TreeMap<>(digests));
+    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static String key(String channel, String templateName) {
+    return channel + "/" + templateName;
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.model.TemplateFailure;
+import com.epam.digital.data.platform.notification.properties.PublishServerProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Server mode: keeps the application context warm and publishes on request, so that repeated
+ * publishing reuses the loaders, caches and notification-service connection pool instead of
+ * paying the application startup every time.
+ *
+ * <p>{@code POST /publish} publishes the configured notifications directory, or the directory or
+ * archive given by the {@code source} query parameter, and {@code resume=true} resumes an
+ * interrupted run. Progress is streamed back as plain text lines, the last one being either
+ * {@code finished: <summary>} or {@code failed: <message>}. Publishing requests run one at a time,
+ * concurrent ones wait for the running one to finish. {@code GET /health} answers {@code ok}.
+ */
+@Slf4j
+@Component
+public class PublishServer {
+
+  private final PublishServerProperties serverProperties;
+  private final NotificationPublishingService publishingService;
+  private final CountDownLatch stopped = new CountDownLatch(1);
+
+  private HttpServer server;
+  private ExecutorService executor;
+
+  public PublishServer(PublishServerProperties serverProperties,
+      NotificationPublishingService publishingService) {
+    this.serverProperties = serverProperties;
+    this.publishingService = publishingService;
+  }
+
+  /**
+   * Starts the server and blocks until it is stopped or the calling thread is interrupted.
+   */
+  public void serve() throws IOException {
+    start();
+    try {
+      stopped.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      stop();
+    }
+  }
+
+  /**
+   * @return address the server is bound to
+   */
+  public synchronized InetSocketAddress start() throws IOException {
+    if (server != null) {
+      return server.getAddress();
+    }
+    var address = new InetSocketAddress(InetAddress.getByName(serverProperties.getAddress()),
+        serverProperties.getPort());
+    server = HttpServer.create(address, 0);
+    executor = Executors.newFixedThreadPool(serverProperties.getThreads());
+    server.setExecutor(executor);
+    server.createContext("/publish", this::handlePublish);
+    server.createContext("/health", this::handleHealth);
+    server.start();
+    log.info("Publish server listening on {}", server.getAddress());
+    return server.getAddress();
+  }
+
+  @PreDestroy
+  public synchronized void stop() {
+    if (server != null) {
+      server.stop(0);
+      executor.shutdownNow();
+      server = null;
+      log.info("Publish server stopped");
+    }
+    stopped.countDown();
+  }
+
+  private void handleHealth(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      sendText(exchange, 200, "ok");
+    }
+  }
+
+  private void handlePublish(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        exchange.getResponseHeaders().add("Allow", "POST");
+        sendText(exchange, 405, "Use POST to publish");
+        return;
+      }
+      var parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+      var source = parameters.get("source");
+      if (source != null && !Files.exists(Path.of(source))) {
+        sendText(exchange, 400, String.format("Source %s does not exist", source));
+        return;
+      }
+      exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+      exchange.sendResponseHeaders(200, 0);
+      var progress = new ProgressStream(exchange.getResponseBody());
+      publish(source, Boolean.parseBoolean(parameters.get("resume")), progress);
+    }
+  }
+
+  private void publish(String source, boolean resume, ProgressStream progress) {
+    log.info("Publishing {} on request", source == null ? "configured templates" : source);
+    try {
+      var summary = publishingService.publish(PublishingRequest.builder()
+          .source(source)
+          .resume(resume)
+          .listener(progress)
+          .build());
+      progress.println("finished: " + summary);
+    } catch (RuntimeException e) {
+      log.error("Publishing on request failed: {}", e.getMessage());
+      progress.println("failed: " + e.getMessage());
+    }
+  }
+
+  private static void sendText(HttpExchange exchange, int status, String text)
+      throws IOException {
+    var bytes = (text + "\n").getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+  }
+
+  static Map<String, String> parseQuery(String rawQuery) {
+    var result = new HashMap<String, String>();
+    if (rawQuery == null || rawQuery.isEmpty()) {
+      return result;
+    }
+    for (String parameter : rawQuery.split("&")) {
+      var separator = parameter.indexOf('=');
+      var name = separator < 0 ? parameter : parameter.substring(0, separator);
+      var value = separator < 0 ? "" : parameter.substring(separator + 1);
+      result.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+          URLDecoder.decode(value, StandardCharsets.UTF_8));
+    }
+    return result;
+  }
+
+  /**
+   * Writes progress events as they happen. Events come from publishing workers, hence the
+   * synchronization. A client that went away does not stop the run, its output is dropped.
+   */
+  private static class ProgressStream implements PublishingListener {
+
+    private final OutputStream out;
+    private boolean disconnected;
+
+    private ProgressStream(OutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public void templatesFound(int count) {
+      println(String.format("found %d templates", count));
+    }
+
+    @Override
+    public void templatePublished(String channelName, String templateName) {
+      println(String.format("published %s/%s", channelName, templateName));
+    }
+
+    @Override
+    public void templateSkipped(String channelName, String templateName) {
+      println(String.format("skipped %s/%s", channelName, templateName));
+    }
+
+    @Override
+    public void templateFailed(TemplateFailure failure) {
+      println("failed " + failure);
+    }
+
+    private synchronized void println(String line) {
+      if (disconnected) {
+        return;
+      }
+      try {
+        out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+      } catch (IOException e) {
+        log.warn("Publish progress client disconnected: {}", e.getMessage());
+        disconnected = true;
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.model.TemplateFailure;
+
+/**
+ * Receives the progress of a publishing run. Templates are reported from the publishing workers,
+ * so implementations must be thread safe.
+ */
+public interface PublishingListener {
+
+  PublishingListener NONE = new PublishingListener() {
+  };
+
+  default void templatesFound(int count) {
+  }
+
+  default void templatePublished(String channelName, String templateName) {
+  }
+
+  /**
+   * Called for templates skipped as unchanged or as already published by a resumed run.
+   */
+  default void templateSkipped(String channelName, String templateName) {
+  }
+
+  default void templateFailed(TemplateFailure failure) {
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.util.function.BiPredicate;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Parameters of a single publishing run.
+ */
+@Getter
+@Builder
+public class PublishingRequest {
+
+  /**
+   * Notifications directory or template archive to publish, {@code null} for the configured one.
+   */
+  private final String source;
+  /**
+   * Skip templates recorded in the checkpoint journal of an interrupted run unless they have
+   * changed since.
+   */
+  private final boolean resume;
+  /**
+   * Slice of the templates to publish, {@code null} for the configured one.
+   */
+  private final TemplateShard shard;
+  /**
+   * Predicate over the channel name and the template directory selecting the templates to
+   * publish.
+   */
+  @Builder.Default
+  private final BiPredicate<String, TemplateDirectory> templateFilter =
+      (channelName, templateDir) -> true;
+  @Builder.Default
+  private final PublishingListener listener = PublishingListener.NONE;
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Named counters incremented by publishing components and gauges holding their latest state. The
+ * publishing service reports the counter increments of every run and the final gauge values in
+ * its summary.
+ */
+@Component
+public class PublishingStatistics {
+
+  private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+  private final Map<String, Long> gauges = new ConcurrentHashMap<>();
+  private final ThreadLocal<long[]> waitNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+  public void increment(String name) {
+    add(name, 1);
+  }
+
+  public void add(String name, long delta) {
+    counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+  }
+
+  public Map<String, Long> snapshot() {
+    var result = new TreeMap<String, Long>();
+    counters.forEach((name, counter) -> result.put(name, counter.sum()));
+    return result;
+  }
+
+  public void setGauge(String name, long value) {
+    gauges.put(name, value);
+  }
+
+  public Map<String, Long> gauges() {
+    return new TreeMap<>(gauges);
+  }
+
+  /**
+   * Records time the calling thread spent waiting for a limiter of the notification-service
+   * client, so that template durations can be measured without it.
+   */
+  public void recordWait(long nanos) {
+    waitNanos.get()[0] += nanos;
+  }
+
+  /**
+   * @return total time the calling thread spent waiting for limiters
+   */
+  public long getWaitNanos() {
+    return waitNanos.get()[0];
+  }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+import org.jsoup.parser.Parser;
+
+/**
+ * Single pass alternative to rewriting email templates through a Jsoup document. Only
+ * {@code <img src>} and {@code <link href>} tags are parsed, everything else is copied to the
+ * output as is, so FreeMarker markup and formatting are never touched and the memory used is
+ * bounded by the longest tag instead of the whole document tree.
+ *
+ * <p>Image sources are replaced in place. Links with a {@code href} are removed and the
+ * stylesheets they refer to are written in a single {@code <style>} element before
+ * {@code </head>}, or before {@code <body>} or at the end of a template without them. A link
+ * appearing after the head has been closed is replaced by a {@code <style>} element of its own.
+ * Comments and the content of {@code <script>} and {@code <style>} elements are never rewritten.
+ */
+public class StreamingHtmlRewriter {
+
+  private static final int MAX_TAG_NAME_LENGTH = 7;
+
+  /**
+   * @param imageSources maps an image source to its replacement
+   * @param stylesheets  maps a stylesheet reference to the stylesheet content
+   */
+  public void rewrite(Reader reader, Writer writer, UnaryOperator<String> imageSources,
+      UnaryOperator<String> stylesheets) throws IOException {
+    new Rewrite(new CharSource(reader), writer, imageSources, stylesheets).run();
+  }
+
+  private static class Rewrite {
+
+    private final CharSource in;
+    private final Writer out;
+    private final UnaryOperator<String> imageSources;
+    private final UnaryOperator<String> stylesheets;
+    private final StringBuilder headStyles = new StringBuilder();
+    private boolean headClosed;
+
+    private Rewrite(CharSource in, Writer out, UnaryOperator<String> imageSources,
+        UnaryOperator<String> stylesheets) {
+      this.in = in;
+      this.out = out;
+      this.imageSources = imageSources;
+      this.stylesheets = stylesheets;
+    }
+
+    private void run() throws IOException {
+      while (in.copyUntil("<", false, out)) {
+        if (in.startsWith("<!--", false)) {
+          in.copy(4, out);
+          in.copyUntil("-->", false, out);
+          in.copy(3, out);
+          continue;
+        }
+        var tagName = in.peekTagName();
+        if ("img".equals(tagName)) {
+          rewriteImage(in.readTag());
+        } else if ("link".equals(tagName)) {
+          rewriteLink(in.readTag());
+        } else if ("script".equals(tagName) || "style".equals(tagName)) {
+          out.write(in.readTag());
+          in.copyUntil("</" + tagName, true, out);
+        } else {
+          if ("/head".equals(tagName) || "body".equals(tagName)) {
+            closeHead();
+          }
+          in.copy(1, out);
+        }
+      }
+      closeHead();
+    }
+
+    private void rewriteImage(String tag) throws IOException {
+      var src = Attribute.find(tag, "src");
+      var replacement = imageSources.apply(src == null ? "" : src.getValue());
+      out.write(src == null ? tag : src.replaceValue(tag, replacement));
+    }
+
+    private void rewriteLink(String tag) throws IOException {
+      var href = Attribute.find(tag, "href");
+      if (href == null) {
+        out.write(tag);
+        return;
+      }
+      var css = href.getValue().isEmpty() ? "" : stylesheets.apply(href.getValue());
+      if (headClosed) {
+        writeStyle(css);
+      } else {
+        if (headStyles.length() > 0) {
+          headStyles.append('\n');
+        }
+        headStyles.append(css);
+      }
+    }
+
+    private void closeHead() throws IOException {
+      if (!headClosed && headStyles.length() > 0) {
+        writeStyle(headStyles);
+      }
+      headClosed = true;
+    }
+
+    private void writeStyle(CharSequence css) throws IOException {
+      out.write("<style>");
+      out.append(css);
+      out.write("</style>");
+    }
+  }
+
+  /**
+   * Attribute of a tag with the position of its value, quotes included.
+   */
+  private static class Attribute {
+
+    private final String value;
+    private final boolean assigned;
+    private final int start;
+    private final int end;
+
+    private Attribute(String value, boolean assigned, int start, int end) {
+      this.value = value;
+      this.assigned = assigned;
+      this.start = start;
+      this.end = end;
+    }
+
+    private static Attribute find(String tag, String name) {
+      var i = 1;
+      while (i < tag.length() && !isNameEnd(tag.charAt(i))) {
+        i++;
+      }
+      while (i < tag.length()) {
+        var c = tag.charAt(i);
+        if (c == '>') {
+          return null;
+        }
+        if (Character.isWhitespace(c) || c == '/') {
+          i++;
+          continue;
+        }
+        var nameStart = i;
+        while (i < tag.length() && !isNameEnd(tag.charAt(i)) && tag.charAt(i) != '=') {
+          i++;
+        }
+        var attributeName = tag.substring(nameStart, i);
+        var nameEnd = i;
+        i = skipWhitespace(tag, i);
+        if (i == tag.length() || tag.charAt(i) != '=') {
+          if (attributeName.equalsIgnoreCase(name)) {
+            return new Attribute("", false, nameEnd, nameEnd);
+          }
+          continue;
+        }
+        var valueStart = skipWhitespace(tag, i + 1);
+        var valueEnd = valueEnd(tag, valueStart);
+        if (attributeName.equalsIgnoreCase(name)) {
+          var quoted = valueStart < tag.length()
+              && (tag.charAt(valueStart) == '"' || tag.charAt(valueStart) == '\'');
+          var rawValue = quoted
+              ? tag.substring(valueStart + 1, Math.max(valueStart + 1, valueEnd - 1))
+              : tag.substring(valueStart, valueEnd);
+          return new Attribute(Parser.unescapeEntities(rawValue, true), true, valueStart,
+              valueEnd);
+        }
+        i = valueEnd;
+      }
+      return null;
+    }
+
+    private String getValue() {
+      return value;
+    }
+
+    private String replaceValue(String tag, String newValue) {
+      var prefix = assigned ? tag.substring(0, start) : tag.substring(0, start) + "=";
+      return prefix + '"' + newValue.replace("\"", "&quot;") + '"' + tag.substring(end);
+    }
+
+    private static int valueEnd(String tag, int start) {
+      if (start == tag.length()) {
+        return start;
+      }
+      var quote = tag.charAt(start);
+      if (quote == '"' || quote == '\'') {
+        var closing = tag.indexOf(quote, start + 1);
+        return closing < 0 ? tag.length() : closing + 1;
+      }
+      var i = start;
+      while (i < tag.length() && !Character.isWhitespace(tag.charAt(i)) && tag.charAt(i) != '>') {
+        i++;
+      }
+      return i;
+    }
+
+    private static int skipWhitespace(String tag, int i) {
+      while (i < tag.length() && Character.isWhitespace(tag.charAt(i))) {
+        i++;
+      }
+      return i;
+    }
+  }
+
+  private static boolean isNameEnd(char c) {
+    return Character.isWhitespace(c) || c == '/' || c == '>';
+  }
+
+  /**
+   * Buffered reader with arbitrary lookahead.
+   */
+  private static class CharSource {
+
+    private final Reader reader;
+    private char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    private CharSource(Reader reader) {
+      this.reader = reader;
+    }
+
+    private boolean fill(int count) throws IOException {
+      while (limit - position < count) {
+        if (position > 0) {
+          System.arraycopy(buffer, position, buffer, 0, limit - position);
+          limit -= position;
+          position = 0;
+        }
+        if (limit == buffer.length) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        var read = reader.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+          return false;
+        }
+        limit += read;
+      }
+      return true;
+    }
+
+    private boolean startsWith(String prefix, boolean ignoreCase) throws IOException {
+      if (!fill(prefix.length())) {
+        return false;
+      }
+      for (int i = 0; i < prefix.length(); i++) {
+        var c = buffer[position + i];
+        var expected = prefix.charAt(i);
+        if (c != expected && !(ignoreCase && Character.toLowerCase(c) == expected)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Copies characters up to the next occurrence of the terminator, which is left unread. The
+     * terminator is expected in lower case and its first character is matched exactly.
+     *
+     * @return {@code false} when the input ended without the terminator
+     */
+    private boolean copyUntil(String terminator, boolean ignoreCase, Writer out)
+        throws IOException {
+      var first = terminator.charAt(0);
+      while (fill(1)) {
+        var i = position;
+        while (i < limit && buffer[i] != first) {
+          i++;
+        }
+        out.write(buffer, position, i - position);
+        position = i;
+        if (i < limit) {
+          if (startsWith(terminator, ignoreCase)) {
+            return true;
+          }
+          if (limit - position < terminator.length() && !fill(terminator.length())) {
+            // too few characters left to contain the terminator
+            copy(limit - position, out);
+            return false;
+          }
+          copy(1, out);
+        }
+      }
+      return false;
+    }
+
+    private void copy(int count, Writer out) throws IOException {
+      var available = fill(count) ? count : limit - position;
+      out.write(buffer, position, available);
+      position += available;
+    }
+
+    /**
+     * @return lower case name of the tag starting at the current position, prefixed with
+     * {@code /} for a closing tag, {@code null} when it is longer than any name of interest
+     */
+    private String peekTagName() throws IOException {
+      fill(MAX_TAG_NAME_LENGTH + 3);
+      var name = new StringBuilder();
+      for (int i = position + 1; i < limit; i++) {
+        var c = buffer[i];
+        if (isNameEnd(c) && !(c == '/' && i == position + 1)) {
+          return name.toString().toLowerCase(Locale.ROOT);
+        }
+        if (name.length() > MAX_TAG_NAME_LENGTH) {
+          return null;
+        }
+        name.append(c);
+      }
+      return name.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Reads the tag starting at the current position up to its closing {@code >}, skipping the
+     * ones in quoted attribute values.
+     */
+    private String readTag() throws IOException {
+      var tag = new StringBuilder();
+      char quote = 0;
+      while (fill(1)) {
+        var c = buffer[position++];
+        tag.append(c);
+        if (quote != 0) {
+          if (c == quote) {
+            quote = 0;
+          }
+        } else if ((c == '"' || c == '\'') && isAttributeValueStart(tag)) {
+          quote = c;
+        } else if (c == '>') {
+          break;
+        }
+      }
+      return tag.toString();
+    }
+
+    private static boolean isAttributeValueStart(StringBuilder tag) {
+      var i = tag.length() - 2;
+      while (i > 0 && Character.isWhitespace(tag.charAt(i))) {
+        i--;
+      }
+      return i > 0 && tag.charAt(i) == '=';
+    }
+  }
+}
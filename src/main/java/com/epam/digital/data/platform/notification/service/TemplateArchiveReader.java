@@ -0,0 +1,261 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.exceptions.NotificationBuildingException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Reads a template bundle ({@code .zip}, {@code .tar.gz} or {@code .tgz}) laid out like the
+ * notifications directory, optionally wrapped into a single top level directory. The archive is
+ * read in a single pass over its stream and the entries are grouped by channel and template
+ * directory. Entries up to the spill threshold are held in memory, larger ones are written to a
+ * temporary directory that is deleted when the returned index is closed. The total size of the
+ * entries is limited.
+ */
+@Slf4j
+public class TemplateArchiveReader {
+
+  public static final long DEFAULT_SPILL_THRESHOLD = 256 * 1024;
+
+  private static final int BUFFER_SIZE = 8 * 1024;
+  private static final int TEMPLATE_PATH_DEPTH = 2;
+
+  private final long maxSize;
+  private final long spillThreshold;
+
+  public TemplateArchiveReader(long maxSize) {
+    this(maxSize, DEFAULT_SPILL_THRESHOLD);
+  }
+
+  /**
+   * @param maxSize        maximum total size of the archive entries
+   * @param spillThreshold size of an entry above which it is kept in a temporary file rather than
+   *                       in memory
+   */
+  public TemplateArchiveReader(long maxSize, long spillThreshold) {
+    this.maxSize = maxSize;
+    this.spillThreshold = spillThreshold;
+  }
+
+  public static boolean isArchive(Path path) {
+    return hasArchiveExtension(path) && Files.isRegularFile(path);
+  }
+
+  public static boolean hasArchiveExtension(Path path) {
+    var name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+    return name.endsWith(".zip") || name.endsWith(".tar.gz") || name.endsWith(".tgz");
+  }
+
+  public TemplateTreeIndex read(Path archive) throws IOException {
+    var spillDir = new SpillDirectory();
+    try {
+      return read(archive, spillDir);
+    } catch (IOException | RuntimeException e) {
+      spillDir.delete();
+      throw e;
+    }
+  }
+
+  private TemplateTreeIndex read(Path archive, SpillDirectory spillDir) throws IOException {
+    var files = new ArrayList<ArchiveFile>();
+    long size = 0;
+    try (var input = open(archive)) {
+      var entry = input.getNextEntry();
+      for (; entry != null; entry = input.getNextEntry()) {
+        if (entry.isDirectory()
+            || entry instanceof TarArchiveEntry && !((TarArchiveEntry) entry).isFile()) {
+          continue;
+        }
+        if (!input.canReadEntryData(entry)) {
+          log.warn("Skipping unsupported entry {} of template archive {}", entry.getName(),
+              archive);
+          continue;
+        }
+        var path = InMemoryTemplateDirectory.normalize(entry.getName());
+        if (path.isEmpty()) {
+          continue;
+        }
+        var file = readEntry(input, archive, maxSize - size, spillDir);
+        file.segments = path.get().split("/");
+        file.lastModified = entry.getLastModifiedDate().getTime();
+        size += file.size;
+        files.add(file);
+      }
+    }
+    log.info("Read {} files of {} bytes from template archive {}, {} of them spilled to disk",
+        files.size(), size, archive, files.stream().filter(file -> file.content == null).count());
+    return group(archive, files, spillDir);
+  }
+
+  private TemplateTreeIndex group(Path archive, List<ArchiveFile> files,
+      SpillDirectory spillDir) {
+    // every template file is at least channel/template/file deep, so a deeper common first
+    // segment is a wrapping directory
+    var prefixLength = !files.isEmpty()
+        && files.stream().allMatch(file -> file.segments.length > TEMPLATE_PATH_DEPTH + 1)
+        && files.stream().map(file -> file.segments[0]).distinct().count() == 1 ? 1 : 0;
+    var location = archive + "!" + (prefixLength == 0 ? "" : "/" + files.get(0).segments[0]);
+    var channels = new TreeMap<String, Map<String, InMemoryTemplateDirectory>>();
+    // files outside of the template directories, which templates may still refer to
+    var otherFiles = new InMemoryTemplateDirectory(location, "");
+    Function<String, Optional<TemplateFile>> tree = path -> {
+      var segments = path.split("/", TEMPLATE_PATH_DEPTH + 1);
+      if (segments.length <= TEMPLATE_PATH_DEPTH) {
+        return otherFiles.getFile(path);
+      }
+      return Optional.ofNullable(channels.getOrDefault(segments[0], Map.of()).get(segments[1]))
+          .flatMap(templateDir -> templateDir.getFile(segments[TEMPLATE_PATH_DEPTH]));
+    };
+    for (ArchiveFile file : files) {
+      var segments = Arrays.copyOfRange(file.segments, prefixLength, file.segments.length);
+      if (segments.length <= TEMPLATE_PATH_DEPTH) {
+        file.addTo(otherFiles, String.join("/", segments));
+        continue;
+      }
+      var templateDir = channels
+          .computeIfAbsent(segments[0], channel -> new TreeMap<>())
+          .computeIfAbsent(segments[1], templateName -> new InMemoryTemplateDirectory(
+              location + "/" + segments[0] + "/" + templateName, templateName,
+              segments[0] + "/" + templateName, tree));
+      file.addTo(templateDir,
+          String.join("/", Arrays.copyOfRange(segments, TEMPLATE_PATH_DEPTH, segments.length)));
+    }
+    var result = new TreeMap<String, List<TemplateDirectory>>();
+    channels.forEach((channel, templates) ->
+        result.put(channel, new ArrayList<>(templates.values())));
+    return new TemplateTreeIndex(result, spillDir::delete);
+  }
+
+  private ArchiveFile readEntry(InputStream input, Path archive, long remaining,
+      SpillDirectory spillDir) throws IOException {
+    var output = new ByteArrayOutputStream();
+    var buffer = new byte[BUFFER_SIZE];
+    long size = 0;
+    OutputStream spillOutput = null;
+    Path spillFile = null;
+    try {
+      int read;
+      while ((read = input.read(buffer)) != -1) {
+        size += read;
+        if (size > remaining) {
+          throw new NotificationBuildingException(
+              String.format("Template archive %s exceeds the maximum size of %d bytes", archive,
+                  maxSize), null);
+        }
+        if (spillOutput == null && size > spillThreshold) {
+          spillFile = spillDir.createFile();
+          spillOutput = new BufferedOutputStream(Files.newOutputStream(spillFile));
+          output.writeTo(spillOutput);
+          output = null;
+        }
+        (spillOutput == null ? output : spillOutput).write(buffer, 0, read);
+      }
+    } finally {
+      if (spillOutput != null) {
+        spillOutput.close();
+      }
+    }
+    return spillFile == null ? new ArchiveFile(output.toByteArray(), null, size)
+        : new ArchiveFile(null, spillFile, size);
+  }
+
+  private static ArchiveInputStream open(Path archive) throws IOException {
+    var input = new BufferedInputStream(Files.newInputStream(archive));
+    try {
+      if (archive.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip")) {
+        return new ZipArchiveInputStream(input);
+      }
+      return new TarArchiveInputStream(new GzipCompressorInputStream(input));
+    } catch (IOException e) {
+      input.close();
+      throw e;
+    }
+  }
+
+  private static class ArchiveFile {
+
+    private final byte[] content;
+    private final Path spillFile;
+    private final long size;
+    private String[] segments;
+    private long lastModified;
+
+    private ArchiveFile(byte[] content, Path spillFile, long size) {
+      this.content = content;
+      this.spillFile = spillFile;
+      this.size = size;
+    }
+
+    private void addTo(InMemoryTemplateDirectory templateDir, String path) {
+      if (content != null) {
+        templateDir.addFile(path, content, lastModified);
+      } else {
+        templateDir.addFile(path, spillFile, size, lastModified);
+      }
+    }
+  }
+
+  /**
+   * Temporary directory created on the first spilled entry.
+   */
+  private static class SpillDirectory {
+
+    private Path dir;
+
+    private Path createFile() throws IOException {
+      if (dir == null) {
+        dir = Files.createTempDirectory("template-archive");
+      }
+      return Files.createTempFile(dir, "entry", ".tmp");
+    }
+
+    private void delete() {
+      if (dir == null) {
+        return;
+      }
+      try {
+        FileSystemUtils.deleteRecursively(dir);
+      } catch (IOException e) {
+        log.warn("Failed to delete temporary directory {} of template archive", dir, e);
+      }
+    }
+  }
+}
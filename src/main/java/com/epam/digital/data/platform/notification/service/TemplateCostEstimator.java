@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates how long publishing a template takes, to schedule the longest work first. A template
+ * published before is estimated by its recorded duration. Other templates are estimated by their
+ * size, with every asset besides the content and metadata weighted extra for decoding and
+ * encoding, converted to time with the rate observed on the templates with a recorded duration.
+ */
+public class TemplateCostEstimator {
+
+  /**
+   * Extra weight of an image or stylesheet, in bytes of template size.
+   */
+  static final long ASSET_WEIGHT = 16 * 1024;
+
+  private final TemplateTimings timings;
+  private final double nanosPerByte;
+
+  /**
+   * @param timings  durations recorded by previous runs, {@code null} to estimate by size only
+   * @param channels templates of the run by channel name, used to calibrate size estimates
+   */
+  public TemplateCostEstimator(TemplateTimings timings,
+      Map<String, List<TemplateDirectory>> channels) {
+    this.timings = timings;
+    this.nanosPerByte = calibrate(timings, channels);
+  }
+
+  public long estimateNanos(String channelName, TemplateDirectory templateDir) {
+    if (timings != null) {
+      var recorded = timings.getNanos(channelName, templateDir.getName());
+      if (recorded.isPresent()) {
+        return recorded.getAsLong();
+      }
+    }
+    return (long) (weightedSize(templateDir) * nanosPerByte);
+  }
+
+  /**
+   * Lower bound of the time publishing work units of the given durations takes on the given
+   * number of workers: the work cannot be spread better than evenly, nor finish before its
+   * longest unit.
+   */
+  public static long lowerBoundNanos(List<Long> durations, int workers) {
+    var total = durations.stream().mapToLong(Long::longValue).sum();
+    var longest = durations.stream().mapToLong(Long::longValue).max().orElse(0);
+    return Math.max((total + workers - 1) / workers, longest);
+  }
+
+  static long weightedSize(TemplateDirectory templateDir) {
+    List<TemplateFile> files;
+    try {
+      files = templateDir.getFiles();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    long size = 0;
+    for (TemplateFile file : files) {
+      size += file.getSize();
+      if (file.getPath().contains("/") || !NotificationChannel.isTemplateFile(file.getName())) {
+        size += ASSET_WEIGHT;
+      }
+    }
+    return size;
+  }
+
+  private static double calibrate(TemplateTimings timings,
+      Map<String, List<TemplateDirectory>> channels) {
+    if (timings == null) {
+      return 1;
+    }
+    long recordedNanos = 0;
+    long recordedSize = 0;
+    for (Map.Entry<String, List<TemplateDirectory>> channel : channels.entrySet()) {
+      for (TemplateDirectory templateDir : channel.getValue()) {
+        var recorded = timings.getNanos(channel.getKey(), templateDir.getName());
+        if (recorded.isPresent()) {
+          recordedNanos += recorded.getAsLong();
+          recordedSize += weightedSize(templateDir);
+        }
+      }
+    }
+    return recordedNanos == 0 || recordedSize == 0 ? 1 : (double) recordedNanos / recordedSize;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.properties.EmailTemplateProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calculates a SHA-256 digest over every file of a template directory (content, metadata, images
+ * and styles) and the shared files it refers to, so that any change of the template inputs changes
+ * the digest. The digest of an email template also covers the email processing settings, because
+ * they change the published content of an unchanged template.
+ */
+@Component
+public class TemplateDigestCalculator {
+
+  private static final String PARENT_PATH_PREFIX = "../";
+
+  private final String emailSettings;
+
+  public TemplateDigestCalculator(EmailTemplateProperties emailTemplateProperties) {
+    this.emailSettings = fingerprint(emailTemplateProperties);
+  }
+
+  public String calculate(String channel, TemplateDirectory templateDir) {
+    var digest = DigestUtils.getSha256Digest();
+    update(digest, channel);
+    update(digest, templateDir.getName());
+    if (NotificationChannel.EMAIL.getChannelName().equals(channel)) {
+      update(digest, emailSettings);
+    }
+    try {
+      for (TemplateFile file : templateDir.getFiles()) {
+        update(digest, file);
+      }
+      for (TemplateFile file : TemplateReferences.find(channel, templateDir)) {
+        // files of the template directory itself are already part of the digest
+        if (file.getPath().startsWith(PARENT_PATH_PREFIX)) {
+          update(digest, file);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          String.format("Failed to calculate digest of template %s", templateDir.getName()), e);
+    }
+    return Hex.encodeHexString(digest.digest());
+  }
+
+  private void update(MessageDigest digest, TemplateFile file) throws IOException {
+    update(digest, file.getPath());
+    try (var inputStream = file.open()) {
+      DigestUtils.updateDigest(digest, inputStream);
+    }
+  }
+
+  private void update(MessageDigest digest, String value) {
+    digest.update(value.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+  }
+
+  private static String fingerprint(EmailTemplateProperties properties) {
+    var imageOptimization = properties.getImageOptimization();
+    var cssPruning = properties.getCssPruning();
+    return String.format("minify=%s;html-processing=%s;max-asset-size=%d;"
+            + "image-optimization=%s,%d,%d,%s;css-pruning=%s,%s",
+        properties.isMinify(), properties.getHtmlProcessing(),
+        properties.getMaxAssetSize().toBytes(), imageOptimization.isEnabled(),
+        imageOptimization.getMaxWidth(), imageOptimization.getMaxHeight(),
+        imageOptimization.getJpegQuality(), cssPruning.isEnabled(), cssPruning.getAllowList());
+  }
+}
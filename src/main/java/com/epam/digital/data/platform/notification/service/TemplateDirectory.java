@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Template directory of a channel, either a directory on disk or a directory of a template archive
+ * held in memory.
+ */
+public interface TemplateDirectory {
+
+  String getName();
+
+  /**
+   * @param path path relative to the template directory, may contain {@code .} and {@code ..}
+   *             segments
+   */
+  Optional<TemplateFile> getFile(String path);
+
+  /**
+   * @return all files of the template directory including its subdirectories ordered by path
+   */
+  List<TemplateFile> getFiles() throws IOException;
+
+  default TemplateFile getRequiredFile(String path) throws FileNotFoundException {
+    return getFile(path).orElseThrow(() -> new FileNotFoundException(
+        String.format("File %s not found in template %s", path, getName())));
+  }
+
+  static TemplateDirectory of(File dir) {
+    return new FileSystemTemplateDirectory(dir);
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * File of a {@link TemplateDirectory}.
+ */
+public interface TemplateFile {
+
+  /**
+   * @return path of the file relative to its template directory with {@code /} as separator
+   */
+  String getPath();
+
+  /**
+   * @return location identifying the file among all templates, used in messages and as a cache
+   * key
+   */
+  String getLocation();
+
+  long getSize();
+
+  long getLastModified();
+
+  InputStream open() throws IOException;
+
+  default String getName() {
+    return getPath().substring(getPath().lastIndexOf('/') + 1);
+  }
+
+  default byte[] readAllBytes() throws IOException {
+    try (var inputStream = open()) {
+      return inputStream.readAllBytes();
+    }
+  }
+
+  default String readString() throws IOException {
+    return new String(readAllBytes(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
+/**
+ * Finds the files an email template refers to: the images of {@code img} elements, the
+ * stylesheets of {@code link} elements in the {@code css} directory and the files of
+ * {@code url()} references in those stylesheets. References are resolved against the template
+ * directory the way {@link EmailNotificationLoader} resolves them, so unlike
+ * {@link TemplateDirectory#getFiles()} the result includes files shared between templates, e.g.
+ * {@code ../shared/brand.css}.
+ */
+public final class TemplateReferences {
+
+  private static final String STYLES_DIRECTORY_NAME = "css";
+  private static final Pattern CSS_URL =
+      Pattern.compile("url\\(\\s*(['\"]?)([^'\")]+)\\1\\s*\\)");
+
+  private TemplateReferences() {
+  }
+
+  /**
+   * @return existing referenced files ordered by path, empty for channels without references
+   */
+  public static List<TemplateFile> find(String channelName, TemplateDirectory templateDir)
+      throws IOException {
+    var files = new TreeMap<String, TemplateFile>();
+    for (String path : findPaths(channelName, templateDir)) {
+      templateDir.getFile(path).ifPresent(file -> files.putIfAbsent(file.getPath(), file));
+    }
+    return new ArrayList<>(files.values());
+  }
+
+  /**
+   * @return paths of the referenced files relative to the template directory, including the
+   * paths of missing files, empty for channels without references
+   */
+  public static Set<String> findPaths(String channelName, TemplateDirectory templateDir)
+      throws IOException {
+    var contentFile = templateDir.getFile(NotificationChannel.EMAIL.getContentFileName());
+    if (!NotificationChannel.EMAIL.getChannelName().equals(channelName)
+        || contentFile.isEmpty()) {
+      return Set.of();
+    }
+    var paths = new LinkedHashSet<String>();
+    var document = Jsoup.parse(contentFile.get().readString());
+    for (String src : findImages(document)) {
+      add(src, paths);
+    }
+    for (String href : findStylesheets(document)) {
+      var path = getStylesheetPath(href);
+      if (add(path, paths)) {
+        var stylesheet = templateDir.getFile(path);
+        if (stylesheet.isPresent()) {
+          addStylesheetReferences(path, stylesheet.get().readString(), paths);
+        }
+      }
+    }
+    return paths;
+  }
+
+  /**
+   * @return {@code src} attributes of the {@code img} elements in document order, as
+   * {@link EmailNotificationLoader} embeds them
+   */
+  public static List<String> findImages(Document document) {
+    return document.select("img").stream()
+        .map(image -> image.attr("src"))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @return non-empty {@code href} attributes of the {@code link} elements in document order, as
+   * {@link EmailStylesheetEmbedder} embeds them
+   */
+  public static List<String> findStylesheets(Document document) {
+    return document.select("link[href]").stream()
+        .map(link -> link.attr("href"))
+        .filter(href -> !href.isEmpty())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @return path of the stylesheet relative to the template directory
+   */
+  public static String getStylesheetPath(String href) {
+    return STYLES_DIRECTORY_NAME + "/" + href;
+  }
+
+  private static void addStylesheetReferences(String path, String css, Set<String> paths) {
+    var baseDir = path.substring(0, path.lastIndexOf('/') + 1);
+    var matcher = CSS_URL.matcher(css);
+    while (matcher.find()) {
+      add(baseDir + matcher.group(2).trim(), paths);
+    }
+  }
+
+  private static boolean add(String path, Set<String> paths) {
+    if (!isLocal(path)) {
+      return false;
+    }
+    paths.add(path);
+    return true;
+  }
+
+  /**
+   * @return whether the reference is a file path rather than a URL, data URI or fragment
+   */
+  private static boolean isLocal(String path) {
+    return !path.isEmpty() && !path.endsWith("/") && path.indexOf(':') < 0
+        && !path.startsWith("#");
+  }
+}
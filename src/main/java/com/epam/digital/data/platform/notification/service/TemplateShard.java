@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import lombok.Getter;
+
+/**
+ * Slice of the templates published by one of several publisher instances. Templates are assigned
+ * to the slices by a hash of the channel and template name, so that every instance started with
+ * the same number of shards selects a disjoint part of the same template tree without
+ * coordinating with the others.
+ */
+@Getter
+public final class TemplateShard {
+
+  /**
+   * The only shard of an unsharded run, owning every template.
+   */
+  public static final TemplateShard ALL = new TemplateShard(0, 1);
+
+  private final int index;
+  private final int count;
+
+  private TemplateShard(int index, int count) {
+    this.index = index;
+    this.count = count;
+  }
+
+  /**
+   * @param index zero-based index of the shard
+   * @param count number of shards
+   */
+  public static TemplateShard of(int index, int count) {
+    if (count < 1 || index < 0 || index >= count) {
+      throw new IllegalArgumentException(
+          String.format("Invalid shard %d/%d, expected index from 0 to count - 1", index, count));
+    }
+    return count == 1 ? ALL : new TemplateShard(index, count);
+  }
+
+  /**
+   * Parses the {@code index/count} form of the {@code --shard} argument, e.g. {@code 0/4}.
+   */
+  public static TemplateShard parse(String value) {
+    var separator = value.indexOf('/');
+    try {
+      if (separator < 0) {
+        throw new NumberFormatException();
+      }
+      return of(Integer.parseInt(value.substring(0, separator).trim()),
+          Integer.parseInt(value.substring(separator + 1).trim()));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Invalid shard " + value + ", expected index/count, e.g. 0/4");
+    }
+  }
+
+  public boolean isSharded() {
+    return count > 1;
+  }
+
+  public boolean owns(String channelName, String templateName) {
+    return !isSharded() || shardOf(channelName + "/" + templateName, count) == index;
+  }
+
+  /**
+   * Assigns a whole channel to a single shard by its name, for channels whose templates must be
+   * published in order by one instance.
+   */
+  public boolean ownsChannel(String channelName) {
+    return !isSharded() || shardOf(channelName, count) == index;
+  }
+
+  /**
+   * Adds the shard index to the name of a state file, so that shards sharing a working directory
+   * keep separate manifests, journals and summaries. The name is unchanged for unsharded runs.
+   */
+  public String fileName(String fileName) {
+    if (!isSharded()) {
+      return fileName;
+    }
+    return withSuffix(fileName, "-shard-" + index);
+  }
+
+  /**
+   * Inserts the suffix before the extension of the file name, if there is one.
+   */
+  static String withSuffix(String fileName, String suffix) {
+    var extension = fileName.lastIndexOf('.');
+    return extension > fileName.lastIndexOf('/') && extension > 0
+        ? fileName.substring(0, extension) + suffix + fileName.substring(extension)
+        : fileName + suffix;
+  }
+
+  /**
+   * CRC32 of the UTF-8 encoded {@code channel/template} or {@code channel} key, which unlike
+   * {@link String#hashCode()} spreads similarly named templates evenly over the shards.
+   */
+  static int shardOf(String key, int count) {
+    var crc = new CRC32();
+    crc.update(key.getBytes(StandardCharsets.UTF_8));
+    return (int) (crc.getValue() % count);
+  }
+
+  @Override
+  public String toString() {
+    return index + "/" + count;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local record of how long publishing each template took in previous runs, in microseconds.
+ * Keys have the {@code channel/templateName} form.
+ */
+@Slf4j
+public class TemplateTimings {
+
+  private static final TypeReference<Map<String, Long>> TIMINGS_TYPE = new TypeReference<>() {};
+
+  private final Path file;
+  private final ObjectMapper objectMapper;
+  private final Map<String, Long> durations;
+
+  private TemplateTimings(Path file, ObjectMapper objectMapper, Map<String, Long> durations) {
+    this.file = file;
+    this.objectMapper = objectMapper;
+    this.durations = new ConcurrentHashMap<>(durations);
+  }
+
+  public static TemplateTimings load(Path file, ObjectMapper objectMapper) {
+    if (!Files.isRegularFile(file)) {
+      log.info("Template timings {} not existing, scheduling by template size", file);
+      return new TemplateTimings(file, objectMapper, Map.of());
+    }
+    try {
+      return new TemplateTimings(file, objectMapper,
+          objectMapper.readValue(file.toFile(), TIMINGS_TYPE));
+    } catch (IOException e) {
+      log.warn("Template timings {} are not readable, scheduling by template size", file, e);
+      return new TemplateTimings(file, objectMapper, Map.of());
+    }
+  }
+
+  public OptionalLong getNanos(String channel, String templateName) {
+    var micros = durations.get(key(channel, templateName));
+    return micros == null ? OptionalLong.empty()
+        : OptionalLong.of(TimeUnit.MICROSECONDS.toNanos(micros));
+  }
+
+  public void record(String channel, String templateName, long nanos) {
+    durations.put(key(channel, templateName), TimeUnit.NANOSECONDS.toMicros(nanos));
+  }
+
+  public void save() throws IOException {
+    var parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    var tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    objectMapper.writerWithDefaultPrettyPrinter()
+        .writeValue(tempFile.toFile(), new TreeMap<>(durations));
+    Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static String key(String channel, String templateName) {
+    return channel + "/" + templateName;
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable index of channel → template directories → files of a notifications tree.
+ *
+ * <p>A notifications directory is indexed by a single {@link Files#walkFileTree} scan reading
+ * the basic attributes of every file once. The template directories of the index answer file
+ * lookups, sizes and modification times from the index, only the file content is read from disk
+ * again.
+ *
+ * <p>Closing the index releases the resources its files are read from, e.g. the temporary files
+ * of a template archive.
+ */
+@Slf4j
+public class TemplateTreeIndex implements AutoCloseable {
+
+  private static final int TEMPLATE_PATH_DEPTH = 2;
+
+  private final Map<String, List<TemplateDirectory>> channels;
+  private final Runnable closeAction;
+
+  /**
+   * @param channels template directories by channel name, both ordered by name
+   */
+  public TemplateTreeIndex(Map<String, List<TemplateDirectory>> channels) {
+    this(channels, () -> {
+    });
+  }
+
+  /**
+   * @param closeAction releases the resources the files of the index are read from
+   */
+  public TemplateTreeIndex(Map<String, List<TemplateDirectory>> channels, Runnable closeAction) {
+    var copy = new TreeMap<String, List<TemplateDirectory>>();
+    channels.forEach((channel, templates) -> copy.put(channel, List.copyOf(templates)));
+    this.channels = Collections.unmodifiableMap(copy);
+    this.closeAction = closeAction;
+  }
+
+  public static TemplateTreeIndex empty() {
+    return new TemplateTreeIndex(Map.of());
+  }
+
+  public static TemplateTreeIndex scan(Path root) throws IOException {
+    var visitor = new IndexingVisitor(root);
+    Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+        visitor);
+    return visitor.toIndex();
+  }
+
+  /**
+   * @return template directories by channel name, both ordered by name
+   */
+  public Map<String, List<TemplateDirectory>> getChannels() {
+    return channels;
+  }
+
+  public int getTemplateCount() {
+    return channels.values().stream().mapToInt(List::size).sum();
+  }
+
+  @Override
+  public void close() {
+    closeAction.run();
+  }
+
+  private static class IndexingVisitor extends SimpleFileVisitor<Path> {
+
+    private final Path root;
+    private final Map<String, Map<String, Map<String, IndexedFile>>> channels = new TreeMap<>();
+
+    private IndexingVisitor(Path root) {
+      this.root = root;
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+      var relative = root.relativize(dir);
+      var depth = dir.equals(root) ? 0 : relative.getNameCount();
+      if (depth >= 1) {
+        var templates = channels.computeIfAbsent(relative.getName(0).toString(),
+            channel -> new TreeMap<>());
+        if (depth >= TEMPLATE_PATH_DEPTH) {
+          templates.computeIfAbsent(relative.getName(1).toString(), template -> new TreeMap<>());
+        }
+      }
+      return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+      var relative = root.relativize(file);
+      if (!attributes.isRegularFile() || relative.getNameCount() <= TEMPLATE_PATH_DEPTH) {
+        return FileVisitResult.CONTINUE;
+      }
+      var path = relative.subpath(TEMPLATE_PATH_DEPTH, relative.getNameCount()).toString()
+          .replace(file.getFileSystem().getSeparator(), "/");
+      channels.get(relative.getName(0).toString()).get(relative.getName(1).toString())
+          .put(path, new IndexedFile(path, file, attributes.size(),
+              attributes.lastModifiedTime().toMillis()));
+      return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException e) {
+      log.warn("Failed to index {}: {}", file, e.getMessage());
+      return FileVisitResult.CONTINUE;
+    }
+
+    private TemplateTreeIndex toIndex() {
+      var result = new TreeMap<String, List<TemplateDirectory>>();
+      channels.forEach((channel, templates) -> result.put(channel,
+          templates.entrySet().stream()
+              .map(template -> new IndexedTemplateDirectory(
+                  root.resolve(channel).resolve(template.getKey()), template.getValue()))
+              .collect(Collectors.toCollection(ArrayList::new))));
+      return new TemplateTreeIndex(result);
+    }
+  }
+
+  private static class IndexedTemplateDirectory implements TemplateDirectory {
+
+    private final Path dir;
+    private final Map<String, IndexedFile> files;
+
+    private IndexedTemplateDirectory(Path dir, Map<String, IndexedFile> files) {
+      this.dir = dir;
+      this.files = Collections.unmodifiableMap(files);
+    }
+
+    @Override
+    public String getName() {
+      return dir.getFileName().toString();
+    }
+
+    @Override
+    public Optional<TemplateFile> getFile(String path) {
+      var normalizedPath = InMemoryTemplateDirectory.normalize(path);
+      if (normalizedPath.isPresent()) {
+        return Optional.ofNullable(files.get(normalizedPath.get()));
+      }
+      // files shared between templates are outside of the indexed template directory
+      return new FileSystemTemplateDirectory(dir.toFile()).getFile(path);
+    }
+
+    @Override
+    public List<TemplateFile> getFiles() {
+      return new ArrayList<>(files.values());
+    }
+
+    @Override
+    public String toString() {
+      return dir.toString();
+    }
+  }
+
+  private static class IndexedFile implements TemplateFile {
+
+    private final String path;
+    private final Path file;
+    private final long size;
+    private final long lastModified;
+
+    private IndexedFile(String path, Path file, long size, long lastModified) {
+      this.path = path;
+      this.file = file;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    @Override
+    public String getPath() {
+      return path;
+    }
+
+    @Override
+    public String getLocation() {
+      return file.toAbsolutePath().toString();
+    }
+
+    @Override
+    public long getSize() {
+      return size;
+    }
+
+    @Override
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    @Override
+    public InputStream open() throws IOException {
+      return Files.newInputStream(file);
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.model.PublishingPhase;
+import com.epam.digital.data.platform.notification.model.TemplateFailure;
+import com.epam.digital.data.platform.notification.properties.EmailTemplateProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
+import freemarker.core.HTMLOutputFormat;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.jsoup.Jsoup;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks a template directory without publishing it: the FreeMarker source must parse, the
+ * metadata must match the metadata JSON schema and all images and stylesheets referenced by an
+ * email template must exist and fit the asset size limit.
+ */
+@Component
+public class TemplateValidator {
+
+  private static final String METADATA_SCHEMA = "/schema/notification-metadata.schema.json";
+
+  private final ObjectMapper yamlMapper;
+  private final long maxAssetSize;
+  private final JsonSchema metadataSchema;
+  private final Configuration emailConfiguration;
+  private final Configuration inboxConfiguration;
+
+  public TemplateValidator(@Qualifier("yamlMapper") ObjectMapper yamlMapper,
+      EmailTemplateProperties emailTemplateProperties) {
+    this.yamlMapper = yamlMapper;
+    this.maxAssetSize = emailTemplateProperties.getMaxAssetSize().toBytes();
+    this.metadataSchema = loadMetadataSchema();
+
+    emailConfiguration = new Configuration(Configuration.VERSION_2_3_31);
+    emailConfiguration.setTagSyntax(Configuration.SQUARE_BRACKET_TAG_SYNTAX);
+    emailConfiguration.setInterpolationSyntax(Configuration.SQUARE_BRACKET_INTERPOLATION_SYNTAX);
+    emailConfiguration.setOutputFormat(HTMLOutputFormat.INSTANCE);
+    inboxConfiguration = new Configuration(Configuration.VERSION_2_3_31);
+  }
+
+  public List<TemplateFailure> validate(NotificationChannel channel,
+      TemplateDirectory templateDir) {
+    var problems = new ArrayList<TemplateFailure>();
+    var contentFile = templateDir.getFile(channel.getContentFileName());
+    if (contentFile.isEmpty()) {
+      problems.add(problem(channel, templateDir, PublishingPhase.READ,
+          "Template file " + channel.getContentFileName() + " not found"));
+    } else {
+      switch (channel) {
+        case EMAIL:
+          validateFreeMarker(channel, templateDir, contentFile.get(), emailConfiguration,
+              problems);
+          validateEmailAssets(templateDir, contentFile.get(), problems);
+          break;
+        case INBOX:
+          validateFreeMarker(channel, templateDir, contentFile.get(), inboxConfiguration,
+              problems);
+          break;
+        default:
+          break;
+      }
+    }
+    validateMetadata(channel, templateDir, problems);
+    return problems;
+  }
+
+  private void validateFreeMarker(NotificationChannel channel, TemplateDirectory templateDir,
+      TemplateFile contentFile, Configuration configuration, List<TemplateFailure> problems) {
+    try (Reader reader = new InputStreamReader(contentFile.open(), StandardCharsets.UTF_8)) {
+      new Template(contentFile.getName(), reader, configuration);
+    } catch (IOException e) {
+      problems.add(problem(channel, templateDir, PublishingPhase.PARSE, e.getMessage()));
+    }
+  }
+
+  private void validateEmailAssets(TemplateDirectory templateDir, TemplateFile contentFile,
+      List<TemplateFailure> problems) {
+    String html;
+    try {
+      html = contentFile.readString();
+    } catch (IOException e) {
+      problems.add(problem(NotificationChannel.EMAIL, templateDir, PublishingPhase.READ,
+          e.getMessage()));
+      return;
+    }
+    var document = Jsoup.parse(html);
+    for (String src : TemplateReferences.findImages(document)) {
+      checkAsset(templateDir, src, "Image", src, problems);
+    }
+    for (String href : TemplateReferences.findStylesheets(document)) {
+      checkAsset(templateDir, TemplateReferences.getStylesheetPath(href), "Stylesheet", href,
+          problems);
+    }
+  }
+
+  private void checkAsset(TemplateDirectory templateDir, String path, String kind,
+      String reference, List<TemplateFailure> problems) {
+    var asset = templateDir.getFile(path);
+    if (asset.isEmpty()) {
+      problems.add(problem(NotificationChannel.EMAIL, templateDir, PublishingPhase.EMBED,
+          String.format("%s \"%s\" not found", kind, reference)));
+    } else if (asset.get().getSize() > maxAssetSize) {
+      problems.add(problem(NotificationChannel.EMAIL, templateDir, PublishingPhase.EMBED,
+          String.format("%s \"%s\" exceeds the maximum asset size of %d bytes", kind,
+              reference, maxAssetSize)));
+    }
+  }
+
+  private void validateMetadata(NotificationChannel channel, TemplateDirectory templateDir,
+      List<TemplateFailure> problems) {
+    var metadataFile = templateDir.getFile(NotificationChannel.METADATA_FILE_NAME);
+    if (metadataFile.isEmpty()) {
+      return;
+    }
+    try (var inputStream = metadataFile.get().open()) {
+      var metadata = yamlMapper.readTree(inputStream);
+      if (metadata == null || metadata.isMissingNode()) {
+        problems.add(problem(channel, templateDir, PublishingPhase.METADATA,
+            NotificationChannel.METADATA_FILE_NAME + " is empty"));
+        return;
+      }
+      var messages = metadataSchema.validate(metadata);
+      if (!messages.isEmpty()) {
+        problems.add(problem(channel, templateDir, PublishingPhase.METADATA,
+            messages.stream().map(ValidationMessage::getMessage).sorted()
+                .collect(Collectors.joining("; "))));
+      }
+    } catch (IOException e) {
+      problems.add(problem(channel, templateDir, PublishingPhase.METADATA, e.getMessage()));
+    }
+  }
+
+  private TemplateFailure problem(NotificationChannel channel, TemplateDirectory templateDir,
+      PublishingPhase phase, String message) {
+    return new TemplateFailure(channel.getChannelName(), templateDir.getName(), phase, message);
+  }
+
+  private static JsonSchema loadMetadataSchema() {
+    try (var schema = TemplateValidator.class.getResourceAsStream(METADATA_SCHEMA)) {
+      return JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7).getSchema(schema);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to load " + METADATA_SCHEMA, e);
+    }
+  }
+}
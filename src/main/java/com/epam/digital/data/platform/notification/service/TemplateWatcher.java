@@ -0,0 +1,233 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.properties.AppProperties;
+import com.epam.digital.data.platform.notification.properties.PublishingProperties;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Watch mode: watches the notifications directory and republishes the templates affected by
+ * changed files. Events are debounced, so that a burst of events of a single save results in one
+ * publishing run.
+ *
+ * <p>A changed file affects the template directory it belongs to and every other template that
+ * refers to it, i.e. whose resolved image sources, stylesheet links or stylesheet {@code url()}
+ * references point at the file or into a changed directory, which covers stylesheets and images
+ * shared between templates.
+ */
+@Slf4j
+@Component
+public class TemplateWatcher {
+
+  private final AppProperties appProperties;
+  private final PublishingProperties publishingProperties;
+  private final NotificationPublishingService publishingService;
+
+  public TemplateWatcher(AppProperties appProperties, PublishingProperties publishingProperties,
+      NotificationPublishingService publishingService) {
+    this.appProperties = appProperties;
+    this.publishingProperties = publishingProperties;
+    this.publishingService = publishingService;
+  }
+
+  /**
+   * Watches until the calling thread is interrupted.
+   */
+  public void watch() throws IOException {
+    var root = Path.of(appProperties.getNotificationsDirectoryName()).toAbsolutePath();
+    if (!Files.isDirectory(root)) {
+      log.error("Watch mode requires a notifications directory, {} is not one", root);
+      return;
+    }
+    try (var watchService = root.getFileSystem().newWatchService()) {
+      register(watchService, root, new HashSet<>());
+      log.info("Watching {} for template changes", root);
+      while (!Thread.currentThread().isInterrupted()) {
+        var changedFiles = awaitChanges(watchService);
+        if (!changedFiles.isEmpty()) {
+          republish(root, changedFiles);
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      Thread.currentThread().interrupt();
+    }
+    log.info("Stopped watching {}", root);
+  }
+
+  /**
+   * Waits for a file event and collects the events following it until the debounce interval
+   * passes without another one.
+   *
+   * @return changed files, the root of a directory when its events were lost
+   */
+  private Set<Path> awaitChanges(WatchService watchService) throws IOException,
+      InterruptedException {
+    var changedFiles = new TreeSet<Path>();
+    var debounceMillis = publishingProperties.getWatch().getDebounce().toMillis();
+    var key = watchService.take();
+    while (key != null) {
+      collect(watchService, key, changedFiles);
+      key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+    }
+    return changedFiles;
+  }
+
+  private void collect(WatchService watchService, WatchKey key, Set<Path> changedFiles)
+      throws IOException {
+    var dir = (Path) key.watchable();
+    for (var event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        changedFiles.add(dir);
+        continue;
+      }
+      var file = dir.resolve((Path) event.context());
+      changedFiles.add(file);
+      if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(file)) {
+        // files may have been created before the new directory was registered
+        register(watchService, file, changedFiles);
+      }
+    }
+    key.reset();
+  }
+
+  private void republish(Path root, Set<Path> changedFiles) {
+    try {
+      var affected = getAffectedTemplates(root, TemplateTreeIndex.scan(root), changedFiles);
+      if (affected.isEmpty()) {
+        log.debug("Changed files {} do not affect any template", changedFiles);
+        return;
+      }
+      log.info("Republishing templates {} affected by {} changed files", affected,
+          changedFiles.size());
+      publishingService.publish(false, (channelName, templateDir) ->
+          affected.contains(channelName + "/" + templateDir.getName()));
+    } catch (Exception e) {
+      log.error("Failed to republish changed templates: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * @return affected templates as {@code channel/template}
+   */
+  static Set<String> getAffectedTemplates(Path root, TemplateTreeIndex index,
+      Set<Path> changedFiles) throws IOException {
+    var affected = new TreeSet<String>();
+    var referencedFiles = new HashSet<Path>();
+    for (Path changedFile : changedFiles) {
+      if (changedFile.equals(root)) {
+        index.getChannels().keySet().forEach(channelName ->
+            addChannelTemplates(index, channelName, affected));
+        return affected;
+      }
+      var relative = root.relativize(changedFile);
+      var channelName = relative.getName(0).toString();
+      if (relative.getNameCount() == 1
+          && (Files.isDirectory(changedFile) || index.getChannels().containsKey(channelName))) {
+        // a channel directory was created, deleted or lost its events
+        addChannelTemplates(index, channelName, affected);
+        continue;
+      }
+      var templateName = relative.getNameCount() > 1 ? relative.getName(1).toString() : null;
+      if (relative.getNameCount() == 2
+          && (Files.isDirectory(changedFile) || hasTemplate(index, channelName, templateName))) {
+        affected.add(channelName + "/" + templateName);
+        continue;
+      }
+      if (relative.getNameCount() > 2) {
+        affected.add(channelName + "/" + templateName);
+      }
+      if (!NotificationChannel.isTemplateFile(changedFile.getFileName().toString())) {
+        referencedFiles.add(changedFile.toAbsolutePath().normalize());
+      }
+    }
+    if (!referencedFiles.isEmpty()) {
+      addReferencingTemplates(root, index, referencedFiles, affected);
+    }
+    return affected;
+  }
+
+  private static void addChannelTemplates(TemplateTreeIndex index, String channelName,
+      Set<String> affected) {
+    index.getChannels().getOrDefault(channelName, List.of())
+        .forEach(templateDir -> affected.add(channelName + "/" + templateDir.getName()));
+  }
+
+  private static boolean hasTemplate(TemplateTreeIndex index, String channelName,
+      String templateName) {
+    return index.getChannels().getOrDefault(channelName, List.of()).stream()
+        .anyMatch(templateDir -> templateDir.getName().equals(templateName));
+  }
+
+  /**
+   * Adds the templates referring to a changed file or to a file in a changed directory. The
+   * references are resolved without checking that the files exist, so that deleting a shared
+   * file republishes the templates referring to it.
+   */
+  private static void addReferencingTemplates(Path root, TemplateTreeIndex index,
+      Set<Path> changedFiles, Set<String> affected) throws IOException {
+    var absoluteRoot = root.toAbsolutePath().normalize();
+    for (var channel : index.getChannels().entrySet()) {
+      for (TemplateDirectory templateDir : channel.getValue()) {
+        var dir = absoluteRoot.resolve(channel.getKey()).resolve(templateDir.getName());
+        for (String path : TemplateReferences.findPaths(channel.getKey(), templateDir)) {
+          var referencedFile = dir.resolve(path).normalize();
+          if (changedFiles.stream().anyMatch(referencedFile::startsWith)) {
+            affected.add(channel.getKey() + "/" + templateDir.getName());
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  private static void register(WatchService watchService, Path dir, Set<Path> changedFiles)
+      throws IOException {
+    Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attributes)
+          throws IOException {
+        subDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+        changedFiles.add(file);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+}
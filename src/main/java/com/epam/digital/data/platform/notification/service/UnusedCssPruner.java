@@ -0,0 +1,197 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Selector;
+
+/**
+ * Drops style rules whose selectors match no element of the template document. At-rules (media
+ * queries, font faces, imports) are always kept, as well as selectors that Jsoup cannot evaluate,
+ * selectors containing FreeMarker constructs and selectors matching the configured allow-list.
+ */
+@Slf4j
+public class UnusedCssPruner {
+
+  public static final String BYTES_REMOVED_COUNTER = "email.css-pruner.bytes-removed";
+
+  private static final Pattern DYNAMIC_PSEUDO = Pattern.compile(
+      "::?(?:hover|active|focus|focus-within|focus-visible|visited|link|target|before|after"
+          + "|first-line|first-letter|placeholder|selection|marker)\\b");
+  private static final Pattern FREEMARKER = Pattern.compile("\\$\\{|#\\{|\\[=|\\[#|<#");
+
+  private final List<Pattern> allowList;
+  private final PublishingStatistics statistics;
+
+  public UnusedCssPruner(List<String> allowList, PublishingStatistics statistics) {
+    this.allowList = allowList.stream().map(Pattern::compile).collect(Collectors.toList());
+    this.statistics = statistics;
+  }
+
+  public String prune(String css, Document document) {
+    var result = new StringBuilder(css.length());
+    int i = 0;
+    while (i < css.length()) {
+      var c = css.charAt(i);
+      if (c == '/' && css.startsWith("/*", i)) {
+        var end = css.indexOf("*/", i + 2);
+        var commentEnd = end < 0 ? css.length() : end + 2;
+        result.append(css, i, commentEnd);
+        i = commentEnd;
+      } else if (Character.isWhitespace(c)) {
+        result.append(c);
+        i++;
+      } else if (c == '@') {
+        var end = statementEnd(css, i);
+        result.append(css, i, end);
+        i = end;
+      } else {
+        var blockStart = indexOfOutsideStrings(css, i, '{');
+        if (blockStart < 0) {
+          result.append(css, i, css.length());
+          break;
+        }
+        var blockEnd = blockEnd(css, blockStart);
+        var usedSelectors = usedSelectors(css.substring(i, blockStart), document);
+        if (usedSelectors != null) {
+          result.append(usedSelectors).append(css, blockStart, blockEnd);
+        }
+        i = blockEnd;
+      }
+    }
+    statistics.add(BYTES_REMOVED_COUNTER, css.length() - result.length());
+    return result.toString();
+  }
+
+  /**
+   * Returns the selector list without selectors that match nothing, or {@code null} when no
+   * selector of the rule is used.
+   */
+  private String usedSelectors(String prelude, Document document) {
+    var selectors = splitSelectors(prelude);
+    var used = selectors.stream()
+        .filter(selector -> isUsed(selector.trim(), document))
+        .collect(Collectors.toList());
+    if (used.isEmpty()) {
+      return null;
+    }
+    if (used.size() == selectors.size()) {
+      return prelude;
+    }
+    var trailingWhitespace = prelude.substring(prelude.stripTrailing().length());
+    return used.stream().map(String::trim).collect(Collectors.joining(", "))
+        + trailingWhitespace;
+  }
+
+  private boolean isUsed(String selector, Document document) {
+    if (selector.isEmpty() || FREEMARKER.matcher(selector).find()
+        || allowList.stream().anyMatch(pattern -> pattern.matcher(selector).find())) {
+      return true;
+    }
+    var structural = DYNAMIC_PSEUDO.matcher(selector).replaceAll("").trim();
+    if (structural.isEmpty() || structural.endsWith(">") || structural.endsWith("+")
+        || structural.endsWith("~")) {
+      structural = structural.isEmpty() ? "*" : structural + " *";
+    }
+    try {
+      return !document.select(structural).isEmpty();
+    } catch (Selector.SelectorParseException | IllegalArgumentException e) {
+      log.debug("Keeping selector {} that could not be evaluated", selector);
+      return true;
+    }
+  }
+
+  private static List<String> splitSelectors(String prelude) {
+    var selectors = new ArrayList<String>();
+    int depth = 0;
+    int start = 0;
+    for (int i = 0; i < prelude.length(); i++) {
+      var c = prelude.charAt(i);
+      if (c == '(' || c == '[') {
+        depth++;
+      } else if (c == ')' || c == ']') {
+        depth--;
+      } else if (c == '"' || c == '\'') {
+        i = stringEnd(prelude, i) - 1;
+      } else if (c == ',' && depth == 0) {
+        selectors.add(prelude.substring(start, i));
+        start = i + 1;
+      }
+    }
+    selectors.add(prelude.substring(start));
+    return selectors;
+  }
+
+  private static int statementEnd(String css, int start) {
+    for (int i = start; i < css.length(); i++) {
+      var c = css.charAt(i);
+      if (c == '"' || c == '\'') {
+        i = stringEnd(css, i) - 1;
+      } else if (c == ';') {
+        return i + 1;
+      } else if (c == '{') {
+        return blockEnd(css, i);
+      }
+    }
+    return css.length();
+  }
+
+  private static int blockEnd(String css, int blockStart) {
+    int depth = 0;
+    for (int i = blockStart; i < css.length(); i++) {
+      var c = css.charAt(i);
+      if (c == '"' || c == '\'') {
+        i = stringEnd(css, i) - 1;
+      } else if (c == '{') {
+        depth++;
+      } else if (c == '}' && --depth == 0) {
+        return i + 1;
+      }
+    }
+    return css.length();
+  }
+
+  private static int indexOfOutsideStrings(String css, int start, char target) {
+    for (int i = start; i < css.length(); i++) {
+      var c = css.charAt(i);
+      if (c == '"' || c == '\'') {
+        i = stringEnd(css, i) - 1;
+      } else if (c == target) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int stringEnd(String text, int start) {
+    var quote = text.charAt(start);
+    for (int i = start + 1; i < text.length(); i++) {
+      var c = text.charAt(i);
+      if (c == '\\') {
+        i++;
+      } else if (c == quote) {
+        return i + 1;
+      }
+    }
+    return text.length();
+  }
+}
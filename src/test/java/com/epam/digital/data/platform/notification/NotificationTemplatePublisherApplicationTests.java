@@ -17,7 +17,18 @@
 package com.epam.digital.data.platform.notification;
 
 import com.epam.digital.data.platform.notification.properties.AppProperties;
+import com.epam.digital.data.platform.notification.properties.EmailTemplateProperties;
+import com.epam.digital.data.platform.notification.properties.PublishingProperties;
 import com.epam.digital.data.platform.notification.service.EmailNotificationLoader;
+import com.epam.digital.data.platform.notification.service.NotificationPublishingService;
+import com.epam.digital.data.platform.notification.service.PublishServer;
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import com.epam.digital.data.platform.notification.service.TemplateDirectory;
+import com.epam.digital.data.platform.notification.service.TemplateDigestCalculator;
+import com.epam.digital.data.platform.notification.service.TemplateValidator;
+import com.epam.digital.data.platform.notification.service.TemplateWatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -27,9 +38,15 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.util.ResourceUtils;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -44,6 +61,12 @@ class NotificationTemplatePublisherApplicationTests {
   @Mock
   private EmailNotificationLoader emailNotificationLoader;
 
+  @Mock
+  private TemplateWatcher templateWatcher;
+
+  @Mock
+  private PublishServer publishServer;
+
   private String notificationDirectoryName;
   private AppProperties appProperties;
   private NotificationTemplatePublisherApplication notificationTemplatePublisherApplication;
@@ -53,26 +76,73 @@ class NotificationTemplatePublisherApplicationTests {
     notificationDirectoryName = ResourceUtils.getFile("classpath:notifications").getAbsolutePath();
     appProperties = new AppProperties();
     appProperties.setNotificationsDirectoryName(notificationDirectoryName);
+    var publishingProperties = new PublishingProperties();
+    publishingProperties.setValidate(false);
+    publishingProperties.getCheckpoint().setEnabled(false);
     notificationTemplatePublisherApplication =
         new NotificationTemplatePublisherApplication(
-            appProperties, Map.of("email", emailNotificationLoader));
+            new NotificationPublishingService(
+                appProperties, publishingProperties, Map.of("email", emailNotificationLoader),
+                new TemplateDigestCalculator(new EmailTemplateProperties()), new ObjectMapper(),
+                new PublishingStatistics(),
+                new TemplateValidator(new YAMLMapper(), new EmailTemplateProperties())),
+            templateWatcher, publishServer);
+  }
+
+  @Test
+  void shouldCallServiceForEachFolder() throws IOException {
+    when(args.containsOption("notification_templates")).thenReturn(true);
+    notificationTemplatePublisherApplication.run(args);
+
+    verify(emailNotificationLoader, times(3)).load(any());
+    verify(templateWatcher, never()).watch();
   }
 
   @Test
-  void shouldCallServiceForEachFolder() {
+  void shouldWatchForChangesAfterPublishing() throws IOException {
     when(args.containsOption("notification_templates")).thenReturn(true);
+    when(args.containsOption("watch")).thenReturn(true);
+    doThrow(new IllegalStateException("service unavailable"))
+        .when(emailNotificationLoader).load(any());
+
     notificationTemplatePublisherApplication.run(args);
 
-    verify(emailNotificationLoader, times(3)).loadDir(any());
+    verify(templateWatcher).watch();
+  }
+
+  @Test
+  void shouldServePublishingRequestsWithoutPublishingOnStartup() throws IOException {
+    when(args.containsOption("server")).thenReturn(true);
+
+    notificationTemplatePublisherApplication.run(args);
+
+    verify(publishServer).serve();
+    verify(emailNotificationLoader, never()).load(any());
+  }
+
+  @Test
+  void shouldPublishOnlyTemplatesOfShardArgument() throws IOException {
+    when(args.containsOption("notification_templates")).thenReturn(true);
+    var published = new ArrayList<String>();
+    doAnswer(invocation -> published.add(invocation.<TemplateDirectory>getArgument(0).getName()))
+        .when(emailNotificationLoader).load(any());
+
+    for (String shard : List.of("0/2", "1/2")) {
+      when(args.getOptionValues("shard")).thenReturn(List.of(shard));
+      notificationTemplatePublisherApplication.run(args);
+    }
+
+    assertThat(published).containsExactlyInAnyOrder("RequestAppliedNotification",
+        "SendEmailNotification", "SendEmailNotificationWithMetadata");
   }
 
   @Test
-  void shouldReturnEmptyListOfFilesWhenNotificationFolderAbsent() {
+  void shouldReturnEmptyListOfFilesWhenNotificationFolderAbsent() throws IOException {
     when(args.containsOption("notification_templates")).thenReturn(true);
     appProperties.setNotificationsDirectoryName(notificationDirectoryName + "a");
     notificationTemplatePublisherApplication.run(args);
 
-    verify(emailNotificationLoader, never()).loadDir(any());
+    verify(emailNotificationLoader, never()).load(any());
   }
 
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.config;
+
+import com.epam.digital.data.platform.notification.feign.GzipRequestInterceptor;
+import com.epam.digital.data.platform.notification.properties.NotificationServiceClientProperties;
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Param;
+import feign.RequestLine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationServiceClientConfigTest {
+
+  private final NotificationServiceClientConfig config = new NotificationServiceClientConfig();
+  private final NotificationServiceClientProperties clientProperties =
+      new NotificationServiceClientProperties();
+  private final PublishingStatistics publishingStatistics = new PublishingStatistics();
+  private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+  private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+
+  private HttpServer server;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/templates", exchange -> {
+      clientPorts.add(exchange.getRemoteAddress().getPort());
+      InputStream body = exchange.getRequestBody();
+      if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+        body = new GZIPInputStream(body);
+      }
+      receivedBodies.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void shouldReuseConnectionsOfPooledClient() throws IOException {
+    try (var httpClient = config.notificationServiceHttpClient(clientProperties)) {
+      var templateApi = templateApi(config.pooledFeignClient(httpClient, clientProperties,
+          publishingStatistics));
+
+      for (int i = 0; i < 5; i++) {
+        templateApi.save("template" + i, "content" + i);
+      }
+    }
+
+    assertThat(receivedBodies).containsExactly(
+        "content0", "content1", "content2", "content3", "content4");
+    assertThat(clientPorts).containsOnly(clientPorts.get(0));
+  }
+
+  @Test
+  void shouldCompressBodiesSentByPooledClient() throws IOException {
+    var content = "<p>template</p>".repeat(1000);
+    try (var httpClient = config.notificationServiceHttpClient(clientProperties)) {
+      var templateApi = templateApi(config.pooledFeignClient(httpClient, clientProperties,
+          publishingStatistics));
+
+      templateApi.save("large", content);
+    }
+
+    assertThat(receivedBodies).containsExactly(content);
+  }
+
+  @Test
+  void shouldSendRequestsThroughHttp2Client() {
+    var content = "<p>template</p>".repeat(1000);
+    var templateApi = templateApi(config.http2FeignClient(clientProperties,
+        publishingStatistics));
+
+    templateApi.save("small", "content");
+    templateApi.save("large", content);
+
+    assertThat(receivedBodies).containsExactly("content", content);
+  }
+
+  private TemplateApi templateApi(Client client) {
+    return Feign.builder()
+        .client(client)
+        .options(config.feignRequestOptions(clientProperties))
+        .requestInterceptor(new GzipRequestInterceptor(1024))
+        .target(TemplateApi.class, "http://localhost:" + server.getAddress().getPort());
+  }
+
+  interface TemplateApi {
+
+    @RequestLine("PUT /templates/{name}")
+    void save(@Param("name") String name, String content);
+  }
+}
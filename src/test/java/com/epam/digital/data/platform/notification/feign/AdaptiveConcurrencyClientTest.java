@@ -0,0 +1,186 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.properties.NotificationServiceClientProperties;
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import feign.Request.HttpMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyClientTest {
+
+  private static final int WORKERS = 16;
+  private static final int REQUESTS_PER_WORKER = 20;
+  // well above scheduling noise, so that only queueing at the server looks like congestion
+  private static final long BASE_LATENCY_MILLIS = 20;
+  // on top of the base latency, so that a large upload takes several times longer than a small one
+  private static final int BYTES_PER_MILLI = 8 * 1024;
+  private static final byte[] SMALL_BODY = new byte[1024];
+  private static final byte[] LARGE_BODY = new byte[512 * 1024];
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final PublishingStatistics publishingStatistics = new PublishingStatistics();
+  private final NotificationServiceClientProperties.AdaptiveConcurrency settings =
+      new NotificationServiceClientProperties.AdaptiveConcurrency();
+
+  private volatile int serverCapacity = Integer.MAX_VALUE;
+  private volatile int responseStatus = 200;
+  private HttpServer server;
+  private ExecutorService serverExecutor;
+  private ExecutorService workers;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    settings.setMaxLimit(WORKERS);
+    serverExecutor = Executors.newFixedThreadPool(WORKERS * 2);
+    workers = Executors.newFixedThreadPool(WORKERS);
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.setExecutor(serverExecutor);
+    server.createContext("/templates", exchange -> {
+      var concurrent = inFlight.incrementAndGet();
+      maxInFlight.accumulateAndGet(concurrent, Math::max);
+      try {
+        var body = exchange.getRequestBody().readAllBytes();
+        // requests above the capacity queue up and see proportionally higher latency
+        var latencyMillis = BASE_LATENCY_MILLIS * Math.max(1, concurrent - serverCapacity + 1)
+            + body.length / BYTES_PER_MILLI;
+        TimeUnit.MILLISECONDS.sleep(latencyMillis);
+        exchange.sendResponseHeaders(responseStatus, -1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        inFlight.decrementAndGet();
+        exchange.close();
+      }
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    workers.shutdownNow();
+    server.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  @Test
+  void shouldGrowLimitWhileLatencyStaysFlat() throws Exception {
+    settings.setInitialLimit(2);
+    var client = client();
+
+    runWorkers(client);
+
+    assertThat(client.getLimit()).isGreaterThan(2);
+    assertThat(maxInFlight.get()).isGreaterThan(2);
+    assertThat(publishingStatistics.gauges())
+        .containsEntry(AdaptiveConcurrencyClient.LIMIT_GAUGE, (long) client.getLimit());
+  }
+
+  @Test
+  void shouldNotTakeLargeBodiesForCongestion() throws Exception {
+    settings.setInitialLimit(2);
+    var client = client();
+
+    runWorkers(client, requestNumber -> requestNumber % 2 == 0 ? SMALL_BODY : LARGE_BODY);
+
+    assertThat(client.getLimit()).isGreaterThan(2);
+  }
+
+  @Test
+  void shouldPutBodySizesIntoBuckets() {
+    assertThat(AdaptiveConcurrencyClient.sizeBucket(null)).isZero();
+    assertThat(AdaptiveConcurrencyClient.sizeBucket(new byte[1023])).isZero();
+    assertThat(AdaptiveConcurrencyClient.sizeBucket(new byte[1024])).isEqualTo(1);
+    assertThat(AdaptiveConcurrencyClient.sizeBucket(new byte[4 * 1024])).isEqualTo(2);
+    assertThat(AdaptiveConcurrencyClient.sizeBucket(LARGE_BODY)).isEqualTo(5);
+    assertThat(AdaptiveConcurrencyClient.sizeBucket(new byte[64 * 1024 * 1024])).isEqualTo(7);
+  }
+
+  @Test
+  void shouldShrinkLimitWhenLatencyRises() throws Exception {
+    settings.setInitialLimit(2);
+    serverCapacity = 4;
+    var client = client();
+
+    runWorkers(client);
+
+    assertThat(client.getLimit()).isLessThan(WORKERS / 2);
+    assertThat(publishingStatistics.snapshot())
+        .containsKey(AdaptiveConcurrencyClient.DECREASES_COUNTER);
+  }
+
+  @Test
+  void shouldDropToMinimumLimitWhenServerIsOverloaded() throws Exception {
+    settings.setInitialLimit(8);
+    responseStatus = 503;
+    var client = client();
+
+    runWorkers(client);
+
+    assertThat(client.getLimit()).isEqualTo(settings.getMinLimit());
+  }
+
+  private AdaptiveConcurrencyClient client() {
+    return new AdaptiveConcurrencyClient(new Client.Default(null, null), settings, Set.of(503),
+        publishingStatistics);
+  }
+
+  private void runWorkers(Client client) throws Exception {
+    var body = "content".getBytes(StandardCharsets.UTF_8);
+    runWorkers(client, requestNumber -> body);
+  }
+
+  private void runWorkers(Client client, IntFunction<byte[]> bodies) throws Exception {
+    var tasks = new ArrayList<Callable<Void>>();
+    for (int i = 0; i < WORKERS; i++) {
+      tasks.add(() -> {
+        for (int j = 0; j < REQUESTS_PER_WORKER; j++) {
+          var request = Request.create(HttpMethod.PUT,
+              "http://localhost:" + server.getAddress().getPort() + "/templates", Map.of(),
+              bodies.apply(j), StandardCharsets.UTF_8, null);
+          client.execute(request, new Request.Options()).close();
+        }
+        return null;
+      });
+    }
+    for (var future : workers.invokeAll(tasks, 30, TimeUnit.SECONDS)) {
+      future.get();
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.client.NotificationTemplateRestClient;
+import com.epam.digital.data.platform.notification.dto.SaveNotificationTemplateInputDto;
+import com.epam.digital.data.platform.notification.properties.NotificationServiceClientProperties;
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchingTemplateRestClientTest {
+
+  private static final int WORKERS = 8;
+  private static final int TEMPLATES_PER_WORKER = 5;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Queue<String> savedTemplates = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger singleSaves = new AtomicInteger();
+  private final AtomicInteger batchRequests = new AtomicInteger();
+  private final PublishingStatistics publishingStatistics = new PublishingStatistics();
+  private final NotificationServiceClientProperties.Batch settings =
+      new NotificationServiceClientProperties.Batch();
+
+  private volatile int batchStatus = 200;
+  private HttpServer server;
+  private ExecutorService workers;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    settings.setMaxTemplates(4);
+    settings.setLinger(Duration.ofMillis(50));
+    workers = Executors.newFixedThreadPool(WORKERS);
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.setExecutor(Executors.newFixedThreadPool(WORKERS));
+    server.createContext("/api/notifications/", exchange -> {
+      var body = exchange.getRequestBody().readAllBytes();
+      var path = exchange.getRequestURI().getPath();
+      var status = 200;
+      if (path.endsWith("templates:batch")) {
+        batchRequests.incrementAndGet();
+        status = batchStatus;
+        if (status == 200) {
+          for (var template : objectMapper.readTree(body)) {
+            savedTemplates.add(template.get("channel").asText() + ":"
+                + template.get("name").asText());
+          }
+        }
+      } else {
+        singleSaves.incrementAndGet();
+        savedTemplates.add(path.substring(path.lastIndexOf('/') + 1));
+      }
+      exchange.sendResponseHeaders(status, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    workers.shutdownNow();
+    server.stop(0);
+    ((ExecutorService) server.getExecutor()).shutdownNow();
+  }
+
+  @Test
+  void shouldSaveConcurrentTemplatesInBatches() throws Exception {
+    var client = client();
+
+    runWorkers(client, "content");
+
+    assertThat(savedTemplates).containsExactlyInAnyOrderElementsOf(allTemplates());
+    var roundTrips = batchRequests.get() + singleSaves.get();
+    assertThat(batchRequests).hasPositiveValue();
+    assertThat(roundTrips).isLessThan(WORKERS * TEMPLATES_PER_WORKER);
+    assertThat(publishingStatistics.snapshot())
+        .containsEntry(BatchingTemplateRestClient.BATCHES_COUNTER, (long) batchRequests.get())
+        .containsEntry(BatchingTemplateRestClient.ROUND_TRIPS_SAVED_COUNTER,
+            (long) WORKERS * TEMPLATES_PER_WORKER - roundTrips);
+  }
+
+  @Test
+  void shouldFallBackToSingleSavesWhenBatchIsNotSupported() throws Exception {
+    batchStatus = 404;
+    var client = client();
+
+    runWorkers(client, "content");
+    var batchRequestsBefore = batchRequests.get();
+    client.saveTemplate("email", "Late", new SaveNotificationTemplateInputDto());
+
+    assertThat(client.isBatchSupported()).isFalse();
+    assertThat(batchRequests).hasValue(batchRequestsBefore);
+    assertThat(singleSaves).hasValue(WORKERS * TEMPLATES_PER_WORKER + 1);
+    assertThat(savedTemplates).hasSize(WORKERS * TEMPLATES_PER_WORKER + 1)
+        .containsAll(allTemplates());
+    assertThat(publishingStatistics.snapshot()).isEmpty();
+  }
+
+  @Test
+  void shouldSaveTemplatesOneByOneWhenBatchFails() throws Exception {
+    batchStatus = 400;
+    var client = client();
+
+    runWorkers(client, "content");
+
+    assertThat(client.isBatchSupported()).isTrue();
+    assertThat(savedTemplates).containsExactlyInAnyOrderElementsOf(allTemplates());
+    assertThat(singleSaves).hasValue(WORKERS * TEMPLATES_PER_WORKER);
+  }
+
+  @Test
+  void shouldSaveLargeTemplatesOneByOne() throws Exception {
+    settings.setMaxTemplateSize(DataSize.ofBytes(100));
+    var client = client();
+
+    runWorkers(client, "x".repeat(101));
+
+    assertThat(batchRequests).hasValue(0);
+    assertThat(singleSaves).hasValue(WORKERS * TEMPLATES_PER_WORKER);
+  }
+
+  private BatchingTemplateRestClient client() {
+    var url = "http://localhost:" + server.getAddress().getPort();
+    var builder = Feign.builder()
+        .contract(new SpringMvcContract())
+        .encoder(new JsonBodyEncoder(objectMapper));
+    return new BatchingTemplateRestClient(
+        builder.target(NotificationTemplateRestClient.class, url),
+        builder.target(NotificationTemplateBatchClient.class, url), settings,
+        publishingStatistics);
+  }
+
+  private List<String> allTemplates() {
+    return IntStream.range(0, WORKERS * TEMPLATES_PER_WORKER)
+        .mapToObj(i -> "inbox:Template" + i)
+        .collect(Collectors.toList());
+  }
+
+  private void runWorkers(NotificationTemplateRestClient client, String content)
+      throws Exception {
+    var tasks = new ArrayList<Callable<Void>>();
+    for (int i = 0; i < WORKERS; i++) {
+      var worker = i;
+      tasks.add(() -> {
+        for (int j = 0; j < TEMPLATES_PER_WORKER; j++) {
+          client.saveTemplate("inbox", "Template" + (worker * TEMPLATES_PER_WORKER + j),
+              new SaveNotificationTemplateInputDto("title", content, List.of()));
+        }
+        return null;
+      });
+    }
+    for (var future : workers.invokeAll(tasks, 30, TimeUnit.SECONDS)) {
+      future.get();
+    }
+  }
+}
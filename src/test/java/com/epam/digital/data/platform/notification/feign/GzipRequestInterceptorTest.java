@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.Param;
+import feign.RequestLine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipRequestInterceptorTest {
+
+  private HttpServer server;
+  private final List<ReceivedRequest> receivedRequests = new CopyOnWriteArrayList<>();
+  private TemplateApi templateApi;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/templates", exchange -> {
+      var contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+      var wireBody = exchange.getRequestBody().readAllBytes();
+      InputStream body = new ByteArrayInputStream(wireBody);
+      if ("gzip".equals(contentEncoding)) {
+        body = new GZIPInputStream(body);
+      }
+      receivedRequests.add(new ReceivedRequest(contentEncoding, wireBody.length,
+          new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    server.start();
+    templateApi = Feign.builder()
+        .requestInterceptor(new GzipRequestInterceptor(1024))
+        .target(TemplateApi.class, "http://localhost:" + server.getAddress().getPort());
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void shouldCompressLargeBody() {
+    var content = "<p>data:image/png;base64,AAAA</p>".repeat(1000);
+
+    templateApi.save("large", content);
+
+    assertThat(receivedRequests).hasSize(1);
+    var request = receivedRequests.get(0);
+    assertThat(request.contentEncoding).isEqualTo("gzip");
+    assertThat(request.body).isEqualTo(content);
+    assertThat(request.wireSize).isLessThan(content.length() / 10);
+  }
+
+  @Test
+  void shouldSendSmallBodyUncompressed() {
+    templateApi.save("small", "short template");
+
+    assertThat(receivedRequests).hasSize(1);
+    var request = receivedRequests.get(0);
+    assertThat(request.contentEncoding).isNull();
+    assertThat(request.body).isEqualTo("short template");
+  }
+
+  interface TemplateApi {
+
+    @RequestLine("PUT /templates/{name}")
+    void save(@Param("name") String name, String content);
+  }
+
+  private static class ReceivedRequest {
+
+    private final String contentEncoding;
+    private final long wireSize;
+    private final String body;
+
+    private ReceivedRequest(String contentEncoding, long wireSize, String body) {
+      this.contentEncoding = contentEncoding;
+      this.wireSize = wireSize;
+      this.body = body;
+    }
+  }
+}
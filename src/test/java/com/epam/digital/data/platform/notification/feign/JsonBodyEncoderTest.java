@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.dto.NotificationTemplateAttributeDto;
+import com.epam.digital.data.platform.notification.dto.SaveNotificationTemplateInputDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonBodyEncoderTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final JsonBodyEncoder encoder = new JsonBodyEncoder(objectMapper);
+
+  @Test
+  void shouldSerializeBodyToJson() throws Exception {
+    var inputDto = new SaveNotificationTemplateInputDto("Заголовок",
+        "<p>Витяг з реєстру [=registryName] 🇺🇦 \"quoted\"</p>",
+        List.of(new NotificationTemplateAttributeDto("name", "value")));
+    var template = new RequestTemplate();
+
+    encoder.encode(inputDto, SaveNotificationTemplateInputDto.class, template);
+
+    assertThat(template.body()).isEqualTo(objectMapper.writeValueAsBytes(inputDto));
+    assertThat(objectMapper.readValue(template.body(), SaveNotificationTemplateInputDto.class))
+        .isEqualTo(inputDto);
+    assertThat(template.headers().get(JsonBodyEncoder.CONTENT_TYPE))
+        .containsExactly(JsonBodyEncoder.APPLICATION_JSON);
+  }
+
+  @Test
+  void shouldKeepDeclaredContentType() {
+    var template = new RequestTemplate().header(JsonBodyEncoder.CONTENT_TYPE,
+        "application/json;charset=UTF-8");
+
+    encoder.encode(new SaveNotificationTemplateInputDto(), SaveNotificationTemplateInputDto.class,
+        template);
+
+    assertThat(template.headers().get(JsonBodyEncoder.CONTENT_TYPE))
+        .containsExactly("application/json;charset=UTF-8");
+  }
+
+  @Test
+  void shouldPassStringBodyThrough() {
+    var template = new RequestTemplate();
+
+    encoder.encode("plain", String.class, template);
+
+    assertThat(template.body()).isEqualTo("plain".getBytes());
+  }
+}
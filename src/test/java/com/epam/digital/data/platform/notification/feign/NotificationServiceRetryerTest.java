@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.properties.NotificationServiceClientProperties;
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.FeignException;
+import feign.Param;
+import feign.RequestLine;
+import feign.RetryableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationServiceRetryerTest {
+
+  private final Queue<Integer> responseStatuses = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final PublishingStatistics publishingStatistics = new PublishingStatistics();
+  private final NotificationServiceClientProperties.Retry retryPolicy =
+      new NotificationServiceClientProperties.Retry();
+
+  private HttpServer server;
+
+  @BeforeEach
+  void setup() throws IOException {
+    retryPolicy.setInitialBackoff(Duration.ofMillis(10));
+    retryPolicy.setMaxBackoff(Duration.ofMillis(50));
+    retryPolicy.setJitter(0);
+
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/templates", exchange -> {
+      requestCount.incrementAndGet();
+      exchange.getRequestBody().readAllBytes();
+      var status = responseStatuses.poll();
+      exchange.sendResponseHeaders(status == null ? 200 : status, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void shouldRetryTransientStatusesUntilSuccess() {
+    responseStatuses.addAll(List.of(503, 502));
+
+    templateApi(server.getAddress().getPort()).save("template", "content");
+
+    assertThat(requestCount).hasValue(3);
+    assertThat(publishingStatistics.snapshot())
+        .containsEntry(NotificationServiceRetryer.RETRIES_COUNTER, 2L)
+        .containsKey(NotificationServiceRetryer.RETRY_WAIT_COUNTER);
+  }
+
+  @Test
+  void shouldNotRetryClientErrors() {
+    responseStatuses.add(400);
+    var templateApi = templateApi(server.getAddress().getPort());
+
+    assertThatThrownBy(() -> templateApi.save("template", "content"))
+        .isInstanceOf(FeignException.BadRequest.class);
+    assertThat(requestCount).hasValue(1);
+    assertThat(publishingStatistics.snapshot()).isEmpty();
+  }
+
+  @Test
+  void shouldGiveUpAfterMaxAttempts() {
+    retryPolicy.setMaxAttempts(3);
+    responseStatuses.addAll(List.of(503, 503, 503, 503));
+    var templateApi = templateApi(server.getAddress().getPort());
+
+    assertThatThrownBy(() -> templateApi.save("template", "content"))
+        .isInstanceOf(RetryableException.class);
+    assertThat(requestCount).hasValue(3);
+  }
+
+  @Test
+  void shouldStopRetryingWhenTimeBudgetIsExhausted() {
+    retryPolicy.setInitialBackoff(Duration.ofMillis(100));
+    retryPolicy.setMaxBackoff(Duration.ofSeconds(1));
+    retryPolicy.setMaxElapsedTime(Duration.ofMillis(300));
+    responseStatuses.addAll(List.of(503, 503, 503, 503));
+    var templateApi = templateApi(server.getAddress().getPort());
+
+    assertThatThrownBy(() -> templateApi.save("template", "content"))
+        .isInstanceOf(RetryableException.class);
+    assertThat(requestCount).hasValue(2);
+  }
+
+  @Test
+  void shouldRetryConnectionFailures() throws IOException {
+    retryPolicy.setMaxAttempts(3);
+    int closedPort;
+    try (var socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+      closedPort = socket.getLocalPort();
+    }
+    var templateApi = templateApi(closedPort);
+
+    assertThatThrownBy(() -> templateApi.save("template", "content"))
+        .isInstanceOf(RetryableException.class);
+    assertThat(publishingStatistics.snapshot())
+        .containsEntry(NotificationServiceRetryer.RETRIES_COUNTER, 2L);
+  }
+
+  private TemplateApi templateApi(int port) {
+    return Feign.builder()
+        .retryer(new NotificationServiceRetryer(retryPolicy, publishingStatistics))
+        .errorDecoder(new RetryableStatusErrorDecoder(retryPolicy.getRetryableStatuses()))
+        .target(TemplateApi.class, "http://localhost:" + port);
+  }
+
+  interface TemplateApi {
+
+    @RequestLine("PUT /templates/{name}")
+    void save(@Param("name") String name, String content);
+  }
+}
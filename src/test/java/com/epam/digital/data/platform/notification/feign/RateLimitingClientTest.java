@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.feign;
+
+import com.epam.digital.data.platform.notification.service.PublishingStatistics;
+import feign.Client;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitingClientTest {
+
+  private final AtomicInteger executedRequests = new AtomicInteger();
+  private final Client delegate = (request, options) -> {
+    executedRequests.incrementAndGet();
+    return Response.builder().status(200).request(request).headers(Map.of()).build();
+  };
+
+  @Test
+  void shouldLetBurstUpToCapacityThroughAndChargeDebtAfterwards() {
+    var now = new AtomicLong();
+    var bucket = new TokenBucket(10, 10, now::get);
+
+    assertThat(bucket.reserve(10)).isZero();
+    assertThat(bucket.reserve(5)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+    assertThat(bucket.reserve(5)).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    assertThat(bucket.reserve(1)).isZero();
+  }
+
+  @Test
+  void shouldNotRefillBeyondCapacity() {
+    var now = new AtomicLong();
+    var bucket = new TokenBucket(10, 10, now::get);
+
+    now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+    assertThat(bucket.reserve(10)).isZero();
+    assertThat(bucket.reserve(1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+  }
+
+  @Test
+  void shouldThrottleByRequestBodySize() throws IOException {
+    var publishingStatistics = new PublishingStatistics();
+    var client = new RateLimitingClient(delegate, null, new TokenBucket(100_000, 100_000),
+        publishingStatistics);
+    var body = new byte[50_000];
+
+    var startedAt = System.nanoTime();
+    for (int i = 0; i < 3; i++) {
+      client.execute(request(body), new Request.Options());
+    }
+    var elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+    assertThat(executedRequests).hasValue(3);
+    assertThat(elapsed).isGreaterThanOrEqualTo(400);
+    assertThat(publishingStatistics.snapshot()).containsKey(RateLimitingClient.WAIT_COUNTER);
+  }
+
+  @Test
+  void shouldNotDelayRequestsWithinLimits() throws IOException {
+    var publishingStatistics = new PublishingStatistics();
+    var client = new RateLimitingClient(delegate, new TokenBucket(100, 100), null,
+        publishingStatistics);
+
+    for (int i = 0; i < 10; i++) {
+      client.execute(request(null), new Request.Options());
+    }
+
+    assertThat(executedRequests).hasValue(10);
+    assertThat(publishingStatistics.snapshot()).isEmpty();
+  }
+
+  private Request request(byte[] body) {
+    return Request.create(HttpMethod.PUT, "http://localhost/templates", Map.of(), body,
+        StandardCharsets.UTF_8, null);
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckpointJournalTest {
+
+  private static final String DIGEST = "0a1b2c";
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldForceEntriesToDiskInBatches() throws IOException {
+    var file = tempDir.resolve("checkpoint.journal");
+    try (var journal = CheckpointJournal.open(file, false, 2, Duration.ofHours(1))) {
+      journal.record("email", "first", DIGEST);
+      assertThat(Files.readAllLines(file)).isEmpty();
+
+      journal.record("email", "second", DIGEST);
+      assertThat(Files.readAllLines(file))
+          .containsExactly("email\tfirst\t" + DIGEST, "email\tsecond\t" + DIGEST);
+
+      journal.record("inbox", "third", DIGEST);
+    }
+
+    assertThat(Files.readAllLines(file)).hasSize(3);
+  }
+
+  @Test
+  void shouldResumeFromEntriesOfInterruptedRun() throws IOException {
+    var file = tempDir.resolve("checkpoint.journal");
+    Files.writeString(file, "email\tfirst\t" + DIGEST + "\nemail\tsecond\t" + DIGEST
+        + "\nemail\tthi", StandardCharsets.UTF_8);
+
+    try (var journal = CheckpointJournal.open(file, true, 10, Duration.ofHours(1))) {
+      assertThat(journal.isCompleted("email", "first", DIGEST)).isTrue();
+      assertThat(journal.isCompleted("email", "second", "changed")).isFalse();
+      assertThat(journal.isCompleted("email", "thi", DIGEST)).isFalse();
+      assertThat(journal.isCompleted("inbox", "first", DIGEST)).isFalse();
+    }
+  }
+
+  @Test
+  void shouldDiscardEntriesOfPreviousRunWhenNotResuming() throws IOException {
+    var file = tempDir.resolve("checkpoint.journal");
+    Files.writeString(file, "email\tfirst\t" + DIGEST + "\n", StandardCharsets.UTF_8);
+
+    try (var journal = CheckpointJournal.open(file, false, 10, Duration.ofHours(1))) {
+      assertThat(journal.isCompleted("email", "first", DIGEST)).isFalse();
+    }
+    assertThat(Files.readAllLines(file)).isEmpty();
+  }
+
+  @Test
+  void shouldRemoveJournalOfFinishedRun() throws IOException {
+    var file = tempDir.resolve("checkpoint.journal");
+    var journal = CheckpointJournal.open(file, false, 10, Duration.ofHours(1));
+    journal.record("email", "first", DIGEST);
+
+    journal.discard();
+
+    assertThat(file).doesNotExist();
+  }
+}
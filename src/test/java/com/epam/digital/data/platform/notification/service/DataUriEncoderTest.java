@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.exceptions.NotificationBuildingException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DataUriEncoderTest {
+
+  @Test
+  void shouldEncodeFileOfIndexedSize() throws IOException {
+    var content = new byte[100_000];
+    content[99_999] = 7;
+
+    var dataUri = DataUriEncoder.unlimited().encode(file(content, content.length), "image/png");
+
+    assertThat(dataUri).isEqualTo(
+        "data:image/png;base64," + Base64.getEncoder().encodeToString(content));
+  }
+
+  @Test
+  void shouldEncodeFileThatGrewAfterIndexing() throws IOException {
+    var content = new byte[100_000];
+    content[99_999] = 7;
+
+    var dataUri = DataUriEncoder.unlimited().encode(file(content, 10), "image/png");
+
+    assertThat(dataUri).isEqualTo(
+        "data:image/png;base64," + Base64.getEncoder().encodeToString(content));
+  }
+
+  @Test
+  void shouldEncodeFileThatShrankAfterIndexing() throws IOException {
+    var content = new byte[] {1, 2, 3, 4};
+
+    var dataUri = DataUriEncoder.unlimited().encode(file(content, 100), "image/png");
+
+    assertThat(dataUri).isEqualTo(
+        "data:image/png;base64," + Base64.getEncoder().encodeToString(content));
+  }
+
+  @Test
+  void shouldRejectFileThatGrewBeyondMaxAssetSize() {
+    var encoder = new DataUriEncoder(1000);
+
+    assertThatThrownBy(() -> encoder.encode(file(new byte[100_000], 10), "image/png"))
+        .isInstanceOf(NotificationBuildingException.class)
+        .hasMessageContaining("exceeds maximum asset size");
+  }
+
+  private TemplateFile file(byte[] content, long indexedSize) {
+    return new TemplateFile() {
+      @Override
+      public String getPath() {
+        return "images/logo.png";
+      }
+
+      @Override
+      public String getLocation() {
+        return "email/Template/images/logo.png";
+      }
+
+      @Override
+      public long getSize() {
+        return indexedSize;
+      }
+
+      @Override
+      public long getLastModified() {
+        return 0;
+      }
+
+      @Override
+      public InputStream open() {
+        return new ByteArrayInputStream(content);
+      }
+    };
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailContentMinifierTest {
+
+  private final EmailContentMinifier minifier = new EmailContentMinifier();
+
+  @Test
+  void shouldMinifyCssAndKeepFreemarkerExpressions() {
+    var css = "/* header */\n.header  >  a ,\n.footer {\n  color : ${brandColor} ;\n"
+        + "  font-family: \"Open  Sans\", sans-serif;\n}\n\n@media (max-width: 600px) {\n"
+        + "  .header { width: [=width?c]px; }\n}\n";
+
+    assertThat(minifier.minifyCss(css)).isEqualTo(
+        ".header>a,.footer{color:${brandColor};font-family:\"Open  Sans\",sans-serif}"
+            + "@media (max-width:600px){.header{width:[=width?c]px}}");
+  }
+
+  @Test
+  void shouldCollapseWhitespaceOutsideFreemarkerConstructs() {
+    assertThat(minifier.collapseWhitespace("  Hello,\n   ${user.name!\"dear   guest\"}  \n"
+        + "[#if   x == \"a  b\"]yes[/#if]  <#assign s = 'x   y'>  "))
+        .isEqualTo(" Hello, ${user.name!\"dear   guest\"} [#if   x == \"a  b\"]yes[/#if] "
+            + "<#assign s = 'x   y'> ");
+  }
+
+  @Test
+  void shouldRemoveCommentsExceptConditionalOnes() {
+    var document = Jsoup.parse("<html><head></head><body>\n  <!-- author note -->\n"
+        + "  <!--[if mso]><table><![endif]-->\n  <p>  text\n  here </p>\n"
+        + "  <pre>  keep\n  this </pre>\n</body></html>");
+
+    minifier.minify(document);
+
+    assertThat(document.body().html())
+        .isEqualTo(" <!--[if mso]><table><![endif]--> <p> text here </p> <pre>  keep\n  this </pre> ");
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.ResourceUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares throughput and allocation of the Jsoup document and the streaming HTML processing of
+ * email templates. Run with {@code mvn test -Dtest=EmailHtmlProcessingBenchmarkTest
+ * -Dbenchmark=true}, optionally with {@code -Dbenchmark.templates=<email channel directory>} to
+ * measure real templates instead of the test ones and a generated large template.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EmailHtmlProcessingBenchmarkTest {
+
+  private static final int WARMUP_ITERATIONS = 20;
+  private static final int MEASURED_ITERATIONS = 50;
+  private static final int LARGE_TEMPLATE_ROWS = 20_000;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void compareDomAndStreamingProcessing() throws Exception {
+    var domLoader = loader(null);
+    var streamingLoader = loader(new StreamingHtmlRewriter());
+
+    for (File templateDir : templateDirs()) {
+      var dir = TemplateDirectory.of(templateDir);
+      var size = dir.getRequiredFile(NotificationChannel.EMAIL.getContentFileName()).getSize();
+      var dom = measure(domLoader, dir);
+      var streaming = measure(streamingLoader, dir);
+      log.info("{} ({} bytes): dom {}, streaming {}", dir.getName(), size, dom, streaming);
+      assertThat(streamingLoader.getNotificationDto(dir).getContent()).doesNotContain("<link");
+    }
+  }
+
+  private List<File> templateDirs() throws IOException {
+    var templates = System.getProperty("benchmark.templates");
+    var result = new ArrayList<File>();
+    if (templates != null) {
+      for (File templateDir : Objects.requireNonNull(new File(templates).listFiles())) {
+        if (new File(templateDir, NotificationChannel.EMAIL.getContentFileName()).isFile()) {
+          result.add(templateDir);
+        }
+      }
+      return result;
+    }
+    var sample = ResourceUtils.getFile("classpath:notifications/email/SendEmailNotification");
+    result.add(sample);
+    result.add(largeTemplate(sample));
+    return result;
+  }
+
+  /**
+   * The sample template with its table repeated to a size of a few megabytes.
+   */
+  private File largeTemplate(File sample) throws IOException {
+    var largeDir = tempDir.resolve("LargeEmailNotification").toFile();
+    FileUtils.copyDirectory(sample, largeDir);
+    var content = new File(largeDir, NotificationChannel.EMAIL.getContentFileName());
+    var html = FileUtils.readFileToString(content, StandardCharsets.UTF_8);
+    var rows = new StringBuilder();
+    for (int i = 0; i < LARGE_TEMPLATE_ROWS; i++) {
+      rows.append("  <tr>\n    <td>[=request.id]</td>\n    <td class=\"row").append(i)
+          .append("\">[=request.officerName]</td>\n  </tr>\n");
+    }
+    FileUtils.writeStringToFile(content, html.replace("[/#list]", rows + "[/#list]"),
+        StandardCharsets.UTF_8);
+    return largeDir;
+  }
+
+  private static EmailNotificationLoader loader(StreamingHtmlRewriter htmlRewriter) {
+    var statistics = new PublishingStatistics();
+    var imageEmbedder = new EmailImageEmbedder(new EmbeddedImageCache(64 * 1024 * 1024, statistics),
+        DataUriEncoder.unlimited(), null, statistics);
+    return new EmailNotificationLoader(null, new YAMLMapper(), imageEmbedder,
+        new EmailStylesheetEmbedder(null, statistics), null, htmlRewriter);
+  }
+
+  private static Result measure(EmailNotificationLoader loader, TemplateDirectory dir)
+      throws IOException {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      loader.getNotificationDto(dir);
+    }
+    var threadMxBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    var threadId = Thread.currentThread().getId();
+    var allocatedBefore = threadMxBean.getThreadAllocatedBytes(threadId);
+    var startedAt = System.nanoTime();
+    for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+      loader.getNotificationDto(dir);
+    }
+    var elapsedNanos = System.nanoTime() - startedAt;
+    var allocated = threadMxBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    return new Result(MEASURED_ITERATIONS * 1e9 / elapsedNanos, allocated / MEASURED_ITERATIONS);
+  }
+
+  private static class Result {
+
+    private final double templatesPerSecond;
+    private final long bytesAllocatedPerTemplate;
+
+    private Result(double templatesPerSecond, long bytesAllocatedPerTemplate) {
+      this.templatesPerSecond = templatesPerSecond;
+      this.bytesAllocatedPerTemplate = bytesAllocatedPerTemplate;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%.1f templates/s, %d bytes allocated per template",
+          templatesPerSecond, bytesAllocatedPerTemplate);
+    }
+  }
+}
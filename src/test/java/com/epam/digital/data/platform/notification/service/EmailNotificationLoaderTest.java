@@ -19,6 +19,9 @@ package com.epam.digital.data.platform.notification.service;
 import com.epam.digital.data.platform.notification.client.NotificationTemplateRestClient;
 import com.epam.digital.data.platform.notification.dto.NotificationTemplateAttributeDto;
 import com.epam.digital.data.platform.notification.dto.SaveNotificationTemplateInputDto;
+import com.epam.digital.data.platform.notification.exceptions.NotificationBuildingException;
+import com.epam.digital.data.platform.notification.exceptions.TemplatePublishingException;
+import com.epam.digital.data.platform.notification.model.PublishingPhase;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -26,6 +29,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
@@ -35,11 +39,16 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Objects;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(SpringExtension.class)
 class EmailNotificationLoaderTest {
@@ -101,6 +110,126 @@ class EmailNotificationLoaderTest {
         .containsExactly(new NotificationTemplateAttributeDto("name", "value"));
   }
 
+  @Test
+  void shouldEncodeSharedImageOnceWithImageCache() throws URISyntaxException {
+    var statistics = new PublishingStatistics();
+    emailNotificationLoader =
+        new EmailNotificationLoader(
+            notificationTemplateRestClient, new YAMLMapper(),
+            new EmailImageEmbedder(new EmbeddedImageCache(1024 * 1024, statistics),
+                DataUriEncoder.unlimited(), null, statistics),
+            EmailStylesheetEmbedder.defaultEmbedder(), null);
+
+    emailNotificationLoader.loadDir(getFile("/notifications/email/SendEmailNotification"));
+    emailNotificationLoader.loadDir(
+        getFile("/notifications/email/SendEmailNotificationWithMetadata"));
+
+    verify(notificationTemplateRestClient)
+        .saveTemplate(eq("email"), eq("SendEmailNotificationWithMetadata"), templateCaptor.capture());
+    assertThat(StringUtils.deleteWhitespace(templateCaptor.getValue().getContent()))
+        .isEqualTo(StringUtils.deleteWhitespace(expectedResult));
+    assertThat(statistics.snapshot())
+        .containsEntry(EmbeddedImageCache.MISSES_COUNTER, 1L)
+        .containsEntry(EmbeddedImageCache.HITS_COUNTER, 1L);
+  }
+
+  @Test
+  void shouldFailWhenImageExceedsMaxAssetSize() throws URISyntaxException {
+    emailNotificationLoader =
+        new EmailNotificationLoader(
+            notificationTemplateRestClient, new YAMLMapper(),
+            new EmailImageEmbedder(EmbeddedImageCache.disabled(), new DataUriEncoder(1024), null,
+                new PublishingStatistics()), EmailStylesheetEmbedder.defaultEmbedder(), null);
+    var templateDir = getFile("/notifications/email/SendEmailNotification");
+
+    assertThatThrownBy(() -> emailNotificationLoader.loadDir(templateDir))
+        .isInstanceOf(NotificationBuildingException.class)
+        .hasFieldOrPropertyWithValue("phase", PublishingPhase.EMBED);
+    verifyNoInteractions(notificationTemplateRestClient);
+  }
+
+  @Test
+  void shouldAttributeFailedSaveToHttpPhase() throws URISyntaxException {
+    doThrow(new IllegalStateException("Service unavailable"))
+        .when(notificationTemplateRestClient).saveTemplate(any(), any(), any());
+    var templateDir = getFile("/notifications/email/SendEmailNotification");
+
+    assertThatThrownBy(() -> emailNotificationLoader.loadDir(templateDir))
+        .isInstanceOf(TemplatePublishingException.class)
+        .hasFieldOrPropertyWithValue("phase", PublishingPhase.HTTP)
+        .hasFieldOrPropertyWithValue("templateName", "SendEmailNotification")
+        .hasRootCauseMessage("Service unavailable");
+  }
+
+  @Test
+  void shouldAttributeMissingTemplateToReadPhase(@TempDir Path tempDir) {
+    assertThatThrownBy(() -> emailNotificationLoader.loadDir(tempDir.toFile()))
+        .isInstanceOf(TemplatePublishingException.class)
+        .hasFieldOrPropertyWithValue("phase", PublishingPhase.READ);
+    verifyNoInteractions(notificationTemplateRestClient);
+  }
+
+  @Test
+  void shouldMinifyContent() throws URISyntaxException {
+    emailNotificationLoader =
+        new EmailNotificationLoader(
+            notificationTemplateRestClient, new YAMLMapper(), EmailImageEmbedder.defaultEmbedder(),
+            EmailStylesheetEmbedder.defaultEmbedder(), new EmailContentMinifier());
+
+    emailNotificationLoader.loadDir(getFile("/notifications/email/SendEmailNotification"));
+
+    verify(notificationTemplateRestClient)
+        .saveTemplate(eq("email"), eq("SendEmailNotification"), templateCaptor.capture());
+    var content = templateCaptor.getValue().getContent();
+    assertThat(content)
+        .contains("<style>.center{display:block;margin-left:auto;margin-right:auto;height:150px}</style>")
+        .contains("<tr><th>Ідентифікатор</th>")
+        .contains("</tr> [#list requests as request] <tr>")
+        .doesNotContain("\n");
+    assertThat(content.length()).isLessThan(expectedResult.length());
+  }
+
+  @Test
+  void shouldEmbedAssetsWithStreamingRewriterKeepingMarkup() throws Exception {
+    emailNotificationLoader =
+        new EmailNotificationLoader(
+            notificationTemplateRestClient, new YAMLMapper(), EmailImageEmbedder.defaultEmbedder(),
+            EmailStylesheetEmbedder.defaultEmbedder(), null, new StreamingHtmlRewriter());
+    var templateDir = getFile("/notifications/email/SendEmailNotification");
+
+    emailNotificationLoader.loadDir(templateDir);
+
+    verify(notificationTemplateRestClient)
+        .saveTemplate(eq("email"), eq("SendEmailNotification"), templateCaptor.capture());
+    var content = templateCaptor.getValue().getContent();
+    var source = FileUtils.readFileToString(new File(templateDir, "notification.ftlh"),
+        StandardCharsets.UTF_8);
+    var expectedImage = StringUtils.substringBetween(expectedResult, "<img src=\"", "\"");
+    assertThat(content)
+        .startsWith("<html>\n<head>\n  <meta charset=\"utf-8\">\n")
+        .contains("<style>.center {")
+        .contains("<img src=\"" + expectedImage + "\" class=\"center\"/>")
+        .doesNotContain("<link")
+        .endsWith(StringUtils.substringAfter(source, "class=\"center\"/>"));
+  }
+
+  @Test
+  void shouldAttributeMissingStylesheetToEmbedPhaseWithStreamingRewriter(@TempDir Path tempDir)
+      throws IOException {
+    FileUtils.writeStringToFile(tempDir.resolve("notification.ftlh").toFile(),
+        "<head><link href=\"missing.css\"></head>", StandardCharsets.UTF_8);
+    emailNotificationLoader =
+        new EmailNotificationLoader(
+            notificationTemplateRestClient, new YAMLMapper(), EmailImageEmbedder.defaultEmbedder(),
+            EmailStylesheetEmbedder.defaultEmbedder(), null, new StreamingHtmlRewriter());
+
+    assertThatThrownBy(() -> emailNotificationLoader.loadDir(tempDir.toFile()))
+        .isInstanceOf(TemplatePublishingException.class)
+        .hasFieldOrPropertyWithValue("phase", PublishingPhase.EMBED)
+        .hasMessageContaining("missing.css");
+    verifyNoInteractions(notificationTemplateRestClient);
+  }
+
   private static File getFile(String path) throws URISyntaxException {
     return new File(Objects.requireNonNull(EmailNotificationLoaderTest.class.getResource(path)).toURI());
   }
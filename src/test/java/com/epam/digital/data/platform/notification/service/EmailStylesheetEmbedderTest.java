@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.exceptions.NotificationBuildingException;
+import org.apache.commons.io.FileUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailStylesheetEmbedderTest {
+
+  private PublishingStatistics statistics;
+  private EmailStylesheetEmbedder stylesheetEmbedder;
+  private File templateDir;
+  private TemplateDirectory template;
+
+  @BeforeEach
+  void init() throws URISyntaxException {
+    statistics = new PublishingStatistics();
+    stylesheetEmbedder = new EmailStylesheetEmbedder(null, statistics);
+    templateDir = getFile("/stylesheet-embedder/MultiStylesheetNotification");
+    template = TemplateDirectory.of(templateDir);
+  }
+
+  @Test
+  void shouldEmbedAllLinkedStylesheetsInOrder() throws IOException {
+    var document = parseTemplate();
+
+    stylesheetEmbedder.embed(document, template);
+
+    assertThat(document.select("link")).isEmpty();
+    var styles = document.head().select("style");
+    assertThat(styles).hasSize(2);
+    assertThat(styles.get(0).data()).isEqualTo(".inline { color: black; }");
+    assertThat(styles.get(1).data())
+        .isEqualTo(".title {\n  font-size: 20px;\n}\n\n.title {\n  color: #0068c6;\n}\n");
+  }
+
+  @Test
+  void shouldServeRepeatedStylesheetsFromCache() throws IOException {
+    stylesheetEmbedder.embed(parseTemplate(), template);
+    stylesheetEmbedder.embed(parseTemplate(), template);
+
+    assertThat(statistics.snapshot())
+        .containsEntry(EmailStylesheetEmbedder.MISSES_COUNTER, 2L)
+        .containsEntry(EmailStylesheetEmbedder.HITS_COUNTER, 2L);
+  }
+
+  @Test
+  void shouldFailOnMissingStylesheet() {
+    var document = Jsoup.parse("<html><head><link href=\"missing.css\"></head></html>");
+
+    assertThatThrownBy(() -> stylesheetEmbedder.embed(document, template))
+        .isInstanceOf(NotificationBuildingException.class)
+        .hasMessageContaining("missing.css");
+  }
+
+  private Document parseTemplate() throws IOException {
+    return Jsoup.parse(FileUtils.readFileToString(new File(templateDir, "notification.ftlh"),
+        StandardCharsets.UTF_8));
+  }
+
+  private static File getFile(String path) throws URISyntaxException {
+    return new File(
+        Objects.requireNonNull(EmailStylesheetEmbedderTest.class.getResource(path)).toURI());
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.model.EmbeddedImage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedImageCacheTest {
+
+  private final Map<String, Integer> opened = new HashMap<>();
+  private final PublishingStatistics statistics = new PublishingStatistics();
+  private final EmbeddedImageCache cache = new EmbeddedImageCache(10, statistics);
+
+  @Test
+  void shouldMemoizeContentHashWhileImageIsCached() throws IOException {
+    cache.get(file("logo.png", 1), this::encode);
+    cache.get(file("logo.png", 1), this::encode);
+
+    assertThat(opened).containsEntry("logo.png", 1);
+    assertThat(statistics.snapshot())
+        .containsEntry(EmbeddedImageCache.MISSES_COUNTER, 1L)
+        .containsEntry(EmbeddedImageCache.HITS_COUNTER, 1L);
+  }
+
+  @Test
+  void shouldDropContentHashesOfEvictedImages() throws IOException {
+    cache.get(file("logo.png", 1), this::encode);
+    cache.get(file("banner.png", 2), this::encode);
+    cache.get(file("logo.png", 1), this::encode);
+
+    assertThat(opened).containsEntry("logo.png", 2).containsEntry("banner.png", 1);
+    assertThat(statistics.snapshot())
+        .containsEntry(EmbeddedImageCache.MISSES_COUNTER, 3L);
+  }
+
+  private EmbeddedImage encode(TemplateFile file) {
+    return new EmbeddedImage("data:" + file.getName().charAt(0), 0);
+  }
+
+  private TemplateFile file(String name, int content) {
+    return new TemplateFile() {
+      @Override
+      public String getPath() {
+        return "images/" + name;
+      }
+
+      @Override
+      public String getLocation() {
+        return "email/Template/images/" + name;
+      }
+
+      @Override
+      public long getSize() {
+        return 1;
+      }
+
+      @Override
+      public long getLastModified() {
+        return 0;
+      }
+
+      @Override
+      public InputStream open() {
+        opened.merge(name, 1, Integer::sum);
+        return new ByteArrayInputStream(new byte[] {(byte) content});
+      }
+    };
+  }
+}
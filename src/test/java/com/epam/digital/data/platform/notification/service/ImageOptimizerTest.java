@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageOptimizerTest {
+
+  private final ImageOptimizer imageOptimizer = new ImageOptimizer(1200, 1200, 0.85f);
+
+  @Test
+  void shouldDetectMimeTypeBySignature() throws Exception {
+    var png = Files.readAllBytes(
+        getFile("/notifications/email/SendEmailNotification/images/ua.png").toPath());
+
+    assertThat(ImageOptimizer.detectMimeType(png, "ua.jpg")).isEqualTo(ImageOptimizer.PNG);
+    assertThat(ImageOptimizer.detectMimeType(
+        "<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes(StandardCharsets.UTF_8), "logo"))
+        .isEqualTo(ImageOptimizer.SVG);
+    assertThat(ImageOptimizer.detectMimeType(new byte[] {1, 2, 3}, "logo.gif"))
+        .isEqualTo(ImageOptimizer.GIF);
+  }
+
+  @Test
+  void shouldDownscaleAndReencodeOversizedImage() throws IOException {
+    var image = new BufferedImage(2400, 1600, BufferedImage.TYPE_INT_RGB);
+    for (int x = 0; x < image.getWidth(); x++) {
+      for (int y = 0; y < image.getHeight(); y++) {
+        image.setRGB(x, y, (x * 255 / image.getWidth()) << 16 | (y * 255 / image.getHeight()) << 8
+            | ((x * y) % 256));
+      }
+    }
+    var output = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", output);
+    var original = output.toByteArray();
+
+    var optimized = imageOptimizer.optimize(original, "large.png");
+
+    assertThat(optimized.getContent()).isNotSameAs(original);
+    assertThat(optimized.getContent().length).isLessThan(original.length);
+    var result = ImageIO.read(new ByteArrayInputStream(optimized.getContent()));
+    assertThat(result.getWidth()).isEqualTo(1200);
+    assertThat(result.getHeight()).isEqualTo(800);
+  }
+
+  @Test
+  void shouldKeepOriginalWhenImageCannotBeDecoded() {
+    var corruptJpeg = new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xC2, 0, 2, 1, 2};
+
+    var optimized = imageOptimizer.optimize(corruptJpeg, "photo.jpg");
+
+    assertThat(optimized.getContent()).isSameAs(corruptJpeg);
+    assertThat(optimized.getMimeType()).isEqualTo(ImageOptimizer.JPEG);
+  }
+
+  @Test
+  void shouldKeepOriginalWhenItIsSmallest() throws Exception {
+    var original = Files.readAllBytes(
+        getFile("/notifications/email/SendEmailNotification/images/ua.png").toPath());
+
+    var optimized = imageOptimizer.optimize(original, "ua.png");
+
+    assertThat(optimized.getMimeType()).isEqualTo(ImageOptimizer.PNG);
+    assertThat(optimized.getContent().length).isLessThanOrEqualTo(original.length);
+  }
+
+  private static File getFile(String path) throws URISyntaxException {
+    return new File(Objects.requireNonNull(ImageOptimizerTest.class.getResource(path)).toURI());
+  }
+}
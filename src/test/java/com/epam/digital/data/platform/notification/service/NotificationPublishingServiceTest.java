@@ -0,0 +1,440 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.exceptions.NotificationBuildingException;
+import com.epam.digital.data.platform.notification.exceptions.PublishingFailedException;
+import com.epam.digital.data.platform.notification.exceptions.TemplatePublishingException;
+import com.epam.digital.data.platform.notification.exceptions.TemplateValidationException;
+import com.epam.digital.data.platform.notification.model.PublishingPhase;
+import com.epam.digital.data.platform.notification.model.TemplateFailure;
+import com.epam.digital.data.platform.notification.properties.AppProperties;
+import com.epam.digital.data.platform.notification.properties.EmailTemplateProperties;
+import com.epam.digital.data.platform.notification.properties.PublishingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.ResourceUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(SpringExtension.class)
+class NotificationPublishingServiceTest {
+
+  @Mock
+  private EmailNotificationLoader emailNotificationLoader;
+  @Mock
+  private InboxNotificationLoader inboxNotificationLoader;
+
+  @TempDir
+  Path checkpointDir;
+
+  private AppProperties appProperties;
+  private PublishingProperties publishingProperties;
+  private NotificationPublishingService publishingService;
+  private final PublishingStatistics statistics = new PublishingStatistics();
+
+  @BeforeEach
+  void setup() throws FileNotFoundException {
+    appProperties = new AppProperties();
+    appProperties.setNotificationsDirectoryName(
+        ResourceUtils.getFile("classpath:notifications").getAbsolutePath());
+    publishingProperties = new PublishingProperties();
+    publishingProperties.setParallelism(4);
+    publishingProperties.setValidate(false);
+    publishingProperties.getCheckpoint().setEnabled(true);
+    publishingProperties.getCheckpoint()
+        .setFile(checkpointDir.resolve("checkpoint.journal").toString());
+    publishingProperties.getScheduling()
+        .setTimingsFile(checkpointDir.resolve("timings.json").toString());
+    publishingService = new NotificationPublishingService(appProperties, publishingProperties,
+        Map.of("email", emailNotificationLoader, "inbox", inboxNotificationLoader),
+        new TemplateDigestCalculator(new EmailTemplateProperties()), new ObjectMapper(),
+        statistics,
+        new TemplateValidator(new YAMLMapper(), new EmailTemplateProperties()));
+  }
+
+  @Test
+  void shouldPublishAllTemplatesInParallel() {
+    var summary = publishingService.publish();
+
+    verify(emailNotificationLoader, times(3)).load(any());
+    verify(inboxNotificationLoader, times(1)).load(any());
+    assertThat(summary.getPublishedCount()).isEqualTo(4);
+    assertThat(summary.getPublishedByChannel()).containsEntry("email", 3L).containsEntry("inbox", 1L);
+  }
+
+  @Test
+  void shouldKeepTemplateOrderForOrderedChannel() {
+    publishingProperties.setOrderedChannels(List.of("email"));
+    List<String> loaded = new CopyOnWriteArrayList<>();
+    doAnswer(invocation -> loaded.add(invocation.<TemplateDirectory>getArgument(0).getName()))
+        .when(emailNotificationLoader).load(any());
+
+    publishingService.publish();
+
+    assertThat(loaded).containsExactly("RequestAppliedNotification", "SendEmailNotification",
+        "SendEmailNotificationWithMetadata");
+  }
+
+  @Test
+  void shouldRethrowFailureOfParallelWorker() {
+    var failure = new NotificationBuildingException("broken template", null);
+    doThrow(failure).when(inboxNotificationLoader).load(any());
+
+    assertThatThrownBy(() -> publishingService.publish()).isSameAs(failure);
+  }
+
+  @Test
+  void shouldSkipUnchangedTemplatesInIncrementalMode(@TempDir Path tempDir) {
+    publishingProperties.setIncremental(true);
+    publishingProperties.setManifestFile(tempDir.resolve("manifest.json").toString());
+
+    var firstRun = publishingService.publish();
+    var secondRun = publishingService.publish();
+
+    verify(emailNotificationLoader, times(3)).load(any());
+    verify(inboxNotificationLoader, times(1)).load(any());
+    assertThat(firstRun.getPublishedCount()).isEqualTo(4);
+    assertThat(secondRun.getPublishedCount()).isZero();
+    assertThat(secondRun.getSkippedCount()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldNotRecordFailedTemplateInManifest(@TempDir Path tempDir) {
+    publishingProperties.setParallelism(1);
+    publishingProperties.setIncremental(true);
+    publishingProperties.setManifestFile(tempDir.resolve("manifest.json").toString());
+    doThrow(new NotificationBuildingException("broken template", null))
+        .doNothing()
+        .when(inboxNotificationLoader).load(any());
+
+    assertThatThrownBy(() -> publishingService.publish())
+        .isInstanceOf(NotificationBuildingException.class);
+    var secondRun = publishingService.publish();
+
+    verify(inboxNotificationLoader, times(2)).load(any());
+    assertThat(secondRun.getPublishedByChannel()).containsOnly(Map.entry("inbox", 1L));
+  }
+
+  @Test
+  void shouldResumeInterruptedRunFromCheckpoint() {
+    publishingProperties.setParallelism(1);
+    List<String> loaded = new CopyOnWriteArrayList<>();
+    doAnswer(invocation -> loaded.add(invocation.<TemplateDirectory>getArgument(0).getName()))
+        .doThrow(new NotificationBuildingException("service unavailable", null))
+        .doAnswer(invocation -> loaded.add(invocation.<TemplateDirectory>getArgument(0).getName()))
+        .when(emailNotificationLoader).load(any());
+
+    assertThatThrownBy(() -> publishingService.publish())
+        .isInstanceOf(NotificationBuildingException.class);
+    var resumedRun = publishingService.publish(true);
+
+    assertThat(loaded).containsExactly("RequestAppliedNotification",
+        "SendEmailNotification", "SendEmailNotificationWithMetadata");
+    assertThat(resumedRun.getResumedCount()).isEqualTo(1);
+    assertThat(resumedRun.getPublishedByChannel())
+        .containsEntry("email", 2L).containsEntry("inbox", 1L);
+    assertThat(checkpointDir.resolve("checkpoint.journal")).doesNotExist();
+  }
+
+  @Test
+  void shouldPublishAllTemplatesWhenNotResuming() {
+    publishingProperties.setParallelism(1);
+    doNothing().doThrow(new NotificationBuildingException("service unavailable", null))
+        .doNothing()
+        .when(emailNotificationLoader).load(any());
+
+    assertThatThrownBy(() -> publishingService.publish())
+        .isInstanceOf(NotificationBuildingException.class);
+    var secondRun = publishingService.publish();
+
+    verify(emailNotificationLoader, times(5)).load(any());
+    assertThat(secondRun.getResumedCount()).isZero();
+  }
+
+  @Test
+  void shouldReportAllFailedTemplatesInContinueOnErrorMode() {
+    publishingProperties.setContinueOnError(true);
+    doNothing()
+        .doThrow(new TemplatePublishingException("SendEmailNotification", PublishingPhase.EMBED,
+            new NotificationBuildingException("Failed to embed picture", null)))
+        .doNothing()
+        .when(emailNotificationLoader).load(any());
+    doThrow(new TemplatePublishingException("InboxNotification", PublishingPhase.HTTP,
+        new IllegalStateException("503 Service Unavailable")))
+        .when(inboxNotificationLoader).load(any());
+
+    var exception = catchThrowableOfType(() -> publishingService.publish(),
+        PublishingFailedException.class);
+
+    verify(emailNotificationLoader, times(3)).load(any());
+    var summary = exception.getSummary();
+    assertThat(summary.getPublishedCount()).isEqualTo(2);
+    assertThat(summary.getFailures())
+        .extracting(TemplateFailure::getChannel, TemplateFailure::getPhase,
+            TemplateFailure::getMessage)
+        .containsExactly(
+            tuple("email", PublishingPhase.EMBED, "Failed to embed picture"),
+            tuple("inbox", PublishingPhase.HTTP, "503 Service Unavailable"));
+    assertThat(summary.getFailureReport()).contains("[EMBED] Failed to embed picture");
+  }
+
+  @Test
+  void shouldPublishTemplatesFromArchive(@TempDir Path tempDir) throws IOException {
+    var archive = tempDir.resolve("notifications.tar.gz");
+    TemplateArchiveReaderTest.writeTarGz(archive, Map.of(
+        "notifications/email/Welcome/notification.ftlh", "<p>Welcome</p>",
+        "notifications/inbox/Welcome/notification.ftl", "Welcome",
+        "notifications/sms/Welcome/notification.txt", "no loader for this channel"));
+    appProperties.setNotificationsDirectoryName(archive.toString());
+    List<String> loaded = new CopyOnWriteArrayList<>();
+    doAnswer(invocation -> loaded.add(invocation.<TemplateDirectory>getArgument(0)
+        .getRequiredFile("notification.ftlh").readString()))
+        .when(emailNotificationLoader).load(any());
+
+    var summary = publishingService.publish();
+
+    assertThat(loaded).containsExactly("<p>Welcome</p>");
+    verify(inboxNotificationLoader).load(any());
+    assertThat(summary.getPublishedByChannel())
+        .containsOnly(Map.entry("email", 1L), Map.entry("inbox", 1L));
+  }
+
+  @Test
+  void shouldStartLargestTemplatesFirstAndRecordTimings(@TempDir Path notificationsDir)
+      throws IOException {
+    writeTemplates(notificationsDir);
+    publishingProperties.setParallelism(2);
+    List<String> started = recordStartedTemplates();
+
+    var summary = publishingService.publish();
+
+    assertThat(started.subList(0, 2)).containsExactlyInAnyOrder("email/Large", "inbox/Medium");
+    assertThat(started.subList(2, 4)).containsExactlyInAnyOrder("email/Small", "inbox/Tiny");
+    assertThat(summary.getMakespan()).isNotNull();
+    assertThat(summary.getMakespan()).isGreaterThanOrEqualTo(summary.getMakespanLowerBound());
+    assertThat(new ObjectMapper().readTree(checkpointDir.resolve("timings.json").toFile()))
+        .hasSize(4);
+  }
+
+  @Test
+  void shouldRecordTimingsWithoutLimiterWaits(@TempDir Path notificationsDir)
+      throws IOException {
+    writeTemplates(notificationsDir);
+    doAnswer(invocation -> {
+      TimeUnit.MILLISECONDS.sleep(50);
+      statistics.recordWait(TimeUnit.MILLISECONDS.toNanos(50));
+      return null;
+    }).when(emailNotificationLoader).load(any());
+
+    publishingService.publish();
+
+    var timings = new ObjectMapper().readTree(checkpointDir.resolve("timings.json").toFile());
+    assertThat(timings.get("email/Large").asLong())
+        .isLessThan(TimeUnit.MILLISECONDS.toNanos(25));
+  }
+
+  @Test
+  void shouldScheduleByRecordedTimings(@TempDir Path notificationsDir) throws IOException {
+    writeTemplates(notificationsDir);
+    Files.writeString(checkpointDir.resolve("timings.json"),
+        "{\"email/Small\": 5000000, \"email/Large\": 1000}");
+    publishingProperties.setParallelism(2);
+    List<String> started = recordStartedTemplates();
+
+    publishingService.publish();
+
+    assertThat(started.subList(0, 2)).containsExactlyInAnyOrder("email/Small", "inbox/Medium");
+  }
+
+  @Test
+  void shouldPublishEachTemplateInExactlyOneShard() throws IOException {
+    publishingProperties.getShard().setCount(3);
+    publishingProperties.setSummaryFile(checkpointDir.resolve("summary.json").toString());
+    List<String> loaded = new CopyOnWriteArrayList<>();
+    for (String channel : List.of("email", "inbox")) {
+      doAnswer(invocation -> loaded.add(
+          channel + "/" + invocation.<TemplateDirectory>getArgument(0).getName()))
+          .when("email".equals(channel) ? emailNotificationLoader : inboxNotificationLoader)
+          .load(any());
+    }
+
+    var published = 0L;
+    for (int index = 0; index < 3; index++) {
+      publishingProperties.getShard().setIndex(index);
+      var summary = publishingService.publish();
+      var report = new ObjectMapper()
+          .readTree(checkpointDir.resolve("summary-shard-" + index + ".json").toFile());
+      assertThat(report.get("shard").asText()).isEqualTo(index + "/3");
+      assertThat(report.get("published").asLong()).isEqualTo(summary.getPublishedCount());
+      published += summary.getPublishedCount();
+    }
+
+    assertThat(loaded).containsExactlyInAnyOrder("email/RequestAppliedNotification",
+        "email/SendEmailNotification", "email/SendEmailNotificationWithMetadata",
+        "inbox/SendInboxNotificationWithMetadata");
+    assertThat(published).isEqualTo(4);
+    assertThat(checkpointDir.resolve("summary.json")).doesNotExist();
+  }
+
+  @Test
+  void shouldPublishOrderedChannelInSingleShard() {
+    publishingProperties.setOrderedChannels(List.of("email"));
+    publishingProperties.getShard().setCount(3);
+
+    var emailCounts = new ArrayList<Long>();
+    for (int index = 0; index < 3; index++) {
+      publishingProperties.getShard().setIndex(index);
+      emailCounts.add(publishingService.publish().getPublishedByChannel()
+          .getOrDefault("email", 0L));
+    }
+
+    assertThat(emailCounts).containsExactlyInAnyOrder(0L, 0L, 3L);
+  }
+
+  @Test
+  void shouldFailWhenRequiredSourceDoesNotExist() {
+    var missing = checkpointDir.resolve("missing").toString();
+    appProperties.setNotificationsDirectoryName(missing);
+
+    assertThat(publishingService.publish().getPublishedCount()).isZero();
+    assertThatThrownBy(() -> publishingService.publish(PublishingRequest.builder()
+        .source(missing)
+        .build()))
+        .isInstanceOf(UncheckedIOException.class)
+        .hasMessageContaining("missing");
+    publishingProperties.setRequireSource(true);
+    assertThatThrownBy(() -> publishingService.publish())
+        .isInstanceOf(UncheckedIOException.class);
+    appProperties.setNotificationsDirectoryName(checkpointDir.resolve("missing.tgz").toString());
+    publishingProperties.setRequireSource(false);
+    assertThatThrownBy(() -> publishingService.publish())
+        .isInstanceOf(UncheckedIOException.class);
+    verifyNoInteractions(emailNotificationLoader, inboxNotificationLoader);
+  }
+
+  @Test
+  void shouldPreferShardOfRequestOverConfiguredOne() {
+    publishingProperties.getShard().setCount(2);
+    publishingProperties.getShard().setIndex(1);
+
+    var summary = publishingService.publish(PublishingRequest.builder()
+        .shard(TemplateShard.ALL)
+        .build());
+
+    assertThat(summary.getPublishedCount()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldKeepStateOfConfiguredTreeWhenPublishingAnotherSource(@TempDir Path otherSource)
+      throws IOException {
+    publishingProperties.setIncremental(true);
+    publishingProperties.setManifestFile(checkpointDir.resolve("manifest.json").toString());
+    var otherTemplate = otherSource.resolve("inbox/SendInboxNotificationWithMetadata");
+    Files.createDirectories(otherTemplate);
+    Files.writeString(otherTemplate.resolve("notification.ftl"), "Another tree");
+
+    publishingService.publish();
+    var otherRun = publishingService.publish(PublishingRequest.builder()
+        .source(otherSource.toString())
+        .build());
+    var secondRun = publishingService.publish();
+
+    assertThat(otherRun.getPublishedCount()).isEqualTo(1);
+    assertThat(secondRun.getPublishedCount()).isZero();
+    assertThat(secondRun.getSkippedCount()).isEqualTo(4);
+    assertThat(checkpointDir).isDirectoryContaining("glob:**/manifest-source-*.json");
+  }
+
+  private void writeTemplates(Path notificationsDir) throws IOException {
+    Files.createDirectories(notificationsDir.resolve("email/Small"));
+    Files.writeString(notificationsDir.resolve("email/Small/notification.ftlh"), "x".repeat(10));
+    Files.createDirectories(notificationsDir.resolve("email/Large"));
+    Files.writeString(notificationsDir.resolve("email/Large/notification.ftlh"),
+        "x".repeat(100_000));
+    Files.createDirectories(notificationsDir.resolve("inbox/Medium/images"));
+    Files.writeString(notificationsDir.resolve("inbox/Medium/notification.ftl"), "x");
+    Files.writeString(notificationsDir.resolve("inbox/Medium/images/logo.png"), "x");
+    Files.createDirectories(notificationsDir.resolve("inbox/Tiny"));
+    Files.writeString(notificationsDir.resolve("inbox/Tiny/notification.ftl"), "x");
+    appProperties.setNotificationsDirectoryName(notificationsDir.toString());
+  }
+
+  /**
+   * Records the templates in the order they are started. The first two hold their workers until
+   * both have started, so that the recorded order is the order the templates were scheduled in.
+   */
+  private List<String> recordStartedTemplates() {
+    List<String> started = new CopyOnWriteArrayList<>();
+    var firstTwoStarted = new CountDownLatch(2);
+    for (String channel : List.of("email", "inbox")) {
+      doAnswer(invocation -> {
+        started.add(channel + "/" + invocation.<TemplateDirectory>getArgument(0).getName());
+        firstTwoStarted.countDown();
+        return firstTwoStarted.await(5, TimeUnit.SECONDS);
+      }).when("email".equals(channel) ? emailNotificationLoader : inboxNotificationLoader)
+          .load(any());
+    }
+    return started;
+  }
+
+  @Test
+  void shouldNotPublishAnythingWhenValidationFails(@TempDir Path notificationsDir)
+      throws IOException {
+    var templateDir = Files.createDirectories(notificationsDir.resolve("email/BrokenTemplate"));
+    Files.writeString(templateDir.resolve("notification.ftlh"), "<p>[#if]</p>");
+    Files.createDirectories(notificationsDir.resolve("inbox/ValidTemplate"))
+        .resolve("notification.ftl").toFile().createNewFile();
+    appProperties.setNotificationsDirectoryName(notificationsDir.toString());
+    publishingProperties.setValidate(true);
+
+    var exception = catchThrowableOfType(() -> publishingService.publish(),
+        TemplateValidationException.class);
+
+    assertThat(exception.getProblems()).singleElement()
+        .extracting(TemplateFailure::getTemplateName).isEqualTo("BrokenTemplate");
+    verifyNoInteractions(emailNotificationLoader, inboxNotificationLoader);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.exceptions.NotificationBuildingException;
+import com.epam.digital.data.platform.notification.properties.AppProperties;
+import com.epam.digital.data.platform.notification.properties.EmailTemplateProperties;
+import com.epam.digital.data.platform.notification.properties.PublishServerProperties;
+import com.epam.digital.data.platform.notification.properties.PublishingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.ResourceUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(SpringExtension.class)
+class PublishServerTest {
+
+  @Mock
+  private EmailNotificationLoader emailNotificationLoader;
+  @Mock
+  private InboxNotificationLoader inboxNotificationLoader;
+
+  @TempDir
+  Path tempDir;
+
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private PublishServer publishServer;
+  private URI baseUri;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    var appProperties = new AppProperties();
+    appProperties.setNotificationsDirectoryName(tempDir.resolve("absent").toString());
+    var publishingProperties = new PublishingProperties();
+    publishingProperties.setValidate(false);
+    publishingProperties.getCheckpoint().setEnabled(false);
+    var publishingService = new NotificationPublishingService(appProperties,
+        publishingProperties,
+        Map.of("email", emailNotificationLoader, "inbox", inboxNotificationLoader),
+        new TemplateDigestCalculator(new EmailTemplateProperties()), new ObjectMapper(),
+        new PublishingStatistics(),
+        new TemplateValidator(new YAMLMapper(), new EmailTemplateProperties()));
+    var serverProperties = new PublishServerProperties();
+    serverProperties.setPort(0);
+    publishServer = new PublishServer(serverProperties, publishingService);
+    var address = publishServer.start();
+    baseUri = URI.create("http://localhost:" + address.getPort());
+  }
+
+  @AfterEach
+  void stopServer() {
+    publishServer.stop();
+  }
+
+  @Test
+  void shouldPublishRequestedSourceAndStreamProgress() throws Exception {
+    var response = post("/publish?source=" + encode(notificationsDirectory()));
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(lines(response)).first().isEqualTo("found 4 templates");
+    assertThat(lines(response)).contains("published email/SendEmailNotification",
+        "published inbox/SendInboxNotificationWithMetadata");
+    assertThat(lines(response)).last().asString().startsWith("finished: published 4 templates");
+    verify(emailNotificationLoader, times(3)).load(any());
+  }
+
+  @Test
+  void shouldReuseServiceForSubsequentRequests() throws Exception {
+    post("/publish?source=" + encode(notificationsDirectory()));
+    var response = post("/publish?source=" + encode(notificationsDirectory()));
+
+    assertThat(lines(response)).last().asString().startsWith("finished:");
+    verify(inboxNotificationLoader, times(2)).load(any());
+  }
+
+  @Test
+  void shouldStreamFailure() throws Exception {
+    doThrow(new NotificationBuildingException("broken template", null))
+        .when(inboxNotificationLoader).load(any());
+
+    var response = post("/publish?source=" + encode(notificationsDirectory()));
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(lines(response)).last().asString().startsWith("failed: ");
+  }
+
+  @Test
+  void shouldRejectMissingSource() throws Exception {
+    var response = post("/publish?source=" + encode(tempDir.resolve("missing").toString()));
+
+    assertThat(response.statusCode()).isEqualTo(400);
+    verifyNoInteractions(emailNotificationLoader);
+  }
+
+  @Test
+  void shouldAnswerHealthCheck() throws Exception {
+    var response = httpClient.send(HttpRequest.newBuilder(baseUri.resolve("/health")).build(),
+        HttpResponse.BodyHandlers.ofString());
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(lines(response)).containsExactly("ok");
+  }
+
+  @Test
+  void shouldParseQuery() {
+    assertThat(PublishServer.parseQuery("source=%2Ftmp%2Fa+b.zip&resume"))
+        .containsEntry("source", "/tmp/a b.zip")
+        .containsEntry("resume", "");
+  }
+
+  private HttpResponse<String> post(String path) throws Exception {
+    var request = HttpRequest.newBuilder(baseUri.resolve(path))
+        .POST(HttpRequest.BodyPublishers.noBody())
+        .build();
+    return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static List<String> lines(HttpResponse<String> response) {
+    return response.body().lines().collect(Collectors.toList());
+  }
+
+  private static String notificationsDirectory() throws IOException {
+    return ResourceUtils.getFile("classpath:notifications").getAbsolutePath();
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingHtmlRewriterTest {
+
+  private final StreamingHtmlRewriter rewriter = new StreamingHtmlRewriter();
+  private final List<String> requestedImages = new ArrayList<>();
+
+  @Test
+  void shouldRewriteImagesAndLinksOnly() throws IOException {
+    var html = "<html>\n<head>\n  <meta charset=\"utf-8\">\n"
+        + "  <link rel=\"stylesheet\" href=\"a.css\">\n  <LINK href='b.css'/>\n</head>\n"
+        + "<body>\n<img src=\"images/ua.png\" class=\"center\"/>\n"
+        + "<table>\n  [#list items as item]\n  <tr><td>${item.name}</td></tr>\n  [/#list]\n"
+        + "</table>\n<#if footer??><p>${footer}</p></#if>\n</body>\n</html>\n";
+
+    var result = rewrite(html);
+
+    assertThat(result).isEqualTo("<html>\n<head>\n  <meta charset=\"utf-8\">\n  \n  \n"
+        + "<style>/* a.css */\n/* b.css */</style></head>\n"
+        + "<body>\n<img src=\"data:images/ua.png\" class=\"center\"/>\n"
+        + "<table>\n  [#list items as item]\n  <tr><td>${item.name}</td></tr>\n  [/#list]\n"
+        + "</table>\n<#if footer??><p>${footer}</p></#if>\n</body>\n</html>\n");
+    assertThat(requestedImages).containsExactly("images/ua.png");
+  }
+
+  @Test
+  void shouldHandleUnquotedAndValuelessAttributes() throws IOException {
+    assertThat(rewrite("<img alt=\"a > b\" src=x.png><img src class=c>"))
+        .isEqualTo("<img alt=\"a > b\" src=\"data:x.png\"><img src=\"data:\" class=c>");
+    assertThat(requestedImages).containsExactly("x.png", "");
+  }
+
+  @Test
+  void shouldDecodeEntitiesInSource() throws IOException {
+    rewrite("<img src=\"a&amp;b.png\">");
+
+    assertThat(requestedImages).containsExactly("a&b.png");
+  }
+
+  @Test
+  void shouldNotRewriteCommentsScriptsAndStyles() throws IOException {
+    var html = "<!-- <img src=\"a.png\"> --><script>var s = '<img src=\"b.png\">';</script>"
+        + "<style>/* <link href=\"c.css\"> */</style><img src=\"d.png\">";
+
+    assertThat(rewrite(html)).isEqualTo("<!-- <img src=\"a.png\"> -->"
+        + "<script>var s = '<img src=\"b.png\">';</script>"
+        + "<style>/* <link href=\"c.css\"> */</style><img src=\"data:d.png\">");
+    assertThat(requestedImages).containsExactly("d.png");
+  }
+
+  @Test
+  void shouldPlaceStylesOfLinksOutsideHead() throws IOException {
+    assertThat(rewrite("<p>text</p><link href=\"a.css\"><link>"))
+        .isEqualTo("<p>text</p><link><style>/* a.css */</style>");
+    assertThat(rewrite("<link href=\"a.css\"><body><link href=\"b.css\"></body>"))
+        .isEqualTo("<style>/* a.css */</style><body><style>/* b.css */</style></body>");
+  }
+
+  @Test
+  void shouldDropLinksWithEmptyReference() throws IOException {
+    assertThat(rewrite("<head><link href=\"\"></head>")).isEqualTo("<head></head>");
+  }
+
+  @Test
+  void shouldCopyTemplateLargerThanBufferUnchanged() throws IOException {
+    var html = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      html.append("<tr><td>[=row").append(i).append("] a < b</td></tr>\n");
+    }
+    html.append("<!-- unterminated <img src=\"a.png\">");
+
+    assertThat(rewrite(html.toString())).isEqualTo(html.toString());
+    assertThat(requestedImages).isEmpty();
+  }
+
+  private String rewrite(String html) throws IOException {
+    var output = new StringWriter();
+    rewriter.rewrite(new StringReader(html), output, src -> {
+      requestedImages.add(src);
+      return "data:" + src;
+    }, href -> "/* " + href + " */");
+    return output.toString();
+  }
+}
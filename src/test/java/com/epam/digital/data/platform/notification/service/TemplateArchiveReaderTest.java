@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.exceptions.NotificationBuildingException;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TemplateArchiveReaderTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldGroupTarGzEntriesByChannelAndTemplate() throws IOException {
+    var archive = tempDir.resolve("templates.tar.gz");
+    writeTarGz(archive, Map.of(
+        "notifications/email/Welcome/notification.ftlh", "<img src=\"images/logo.png\"/>",
+        "notifications/email/Welcome/images/logo.png", "png",
+        "notifications/email/Goodbye/notification.ftlh", "<p>bye</p>",
+        "notifications/inbox/Welcome/notification.ftl", "Hello",
+        "notifications/inbox/Welcome/notification.yml", "title: Hello"));
+
+    var channels = new TemplateArchiveReader(1024).read(archive).getChannels();
+
+    assertThat(channels).containsOnlyKeys("email", "inbox");
+    assertThat(channels.get("email")).extracting(TemplateDirectory::getName)
+        .containsExactly("Goodbye", "Welcome");
+    var welcome = channels.get("email").get(1);
+    assertThat(welcome.getFiles()).extracting(TemplateFile::getPath)
+        .containsExactly("images/logo.png", "notification.ftlh");
+    assertThat(welcome.getFile("./images/../images/logo.png")).get()
+        .satisfies(file -> {
+          assertThat(file.readString()).isEqualTo("png");
+          assertThat(file.getLocation())
+              .isEqualTo(archive + "!/notifications/email/Welcome/images/logo.png");
+        });
+    assertThat(welcome.getFile("../Goodbye/notification.ftlh")).get()
+        .satisfies(file -> {
+          assertThat(file.getPath()).isEqualTo("../Goodbye/notification.ftlh");
+          assertThat(file.readString()).isEqualTo("<p>bye</p>");
+        });
+    assertThat(welcome.getFile("../../../Goodbye/notification.ftlh")).isEmpty();
+  }
+
+  @Test
+  void shouldReadZipWithoutWrappingDirectory() throws IOException {
+    var archive = tempDir.resolve("templates.zip");
+    var entries = new LinkedHashMap<String, String>();
+    entries.put("email/correctResult.ftlh", "ignored, not in a template directory");
+    entries.put("diia/Notice/notification.diia", "diia");
+    entries.put("diia/Notice/css/style.css", "p {}");
+    writeZip(archive, entries);
+
+    var channels = new TemplateArchiveReader(1024).read(archive).getChannels();
+
+    assertThat(channels).containsOnlyKeys("diia");
+    assertThat(channels.get("diia")).singleElement().satisfies(template -> {
+      assertThat(template.getName()).isEqualTo("Notice");
+      assertThat(template.getRequiredFile("notification.diia").readString()).isEqualTo("diia");
+      assertThat(template.getFile("css/style.css")).isPresent();
+      assertThat(template.getFile("../../email/correctResult.ftlh")).get()
+          .extracting(TemplateFile::getLocation)
+          .isEqualTo(archive + "!/email/correctResult.ftlh");
+    });
+  }
+
+  @Test
+  void shouldKeepLargeEntriesInTemporaryFilesUntilClosed() throws IOException {
+    var archive = tempDir.resolve("templates.tgz");
+    writeTarGz(archive, Map.of(
+        "email/Welcome/notification.ftlh", "<p>Welcome</p>",
+        "email/Welcome/images/large.png", "x".repeat(20_000)));
+
+    var index = new TemplateArchiveReader(100_000, 1024).read(archive);
+    var largeImage = index.getChannels().get("email").get(0)
+        .getRequiredFile("images/large.png");
+
+    assertThat(largeImage.getSize()).isEqualTo(20_000);
+    assertThat(largeImage.readString()).isEqualTo("x".repeat(20_000));
+    index.close();
+    assertThatThrownBy(largeImage::readString).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void shouldFailWhenArchiveExceedsMaximumSize() throws IOException {
+    var archive = tempDir.resolve("templates.tgz");
+    writeTarGz(archive, Map.of(
+        "email/Large/notification.ftlh", "x".repeat(600),
+        "email/Large/images/large.png", "x".repeat(600)));
+
+    assertThatThrownBy(() -> new TemplateArchiveReader(1024).read(archive))
+        .isInstanceOf(NotificationBuildingException.class)
+        .hasMessageContaining("exceeds the maximum size of 1024 bytes");
+  }
+
+  @Test
+  void shouldRecognizeArchivesByExtension() throws IOException {
+    var archive = Files.createFile(tempDir.resolve("templates.TGZ"));
+
+    assertThat(TemplateArchiveReader.isArchive(archive)).isTrue();
+    assertThat(TemplateArchiveReader.isArchive(tempDir.resolve("missing.zip"))).isFalse();
+    assertThat(TemplateArchiveReader.isArchive(tempDir)).isFalse();
+  }
+
+  static void writeTarGz(Path archive, Map<String, String> entries) throws IOException {
+    try (var output = new TarArchiveOutputStream(
+        new GzipCompressorOutputStream(Files.newOutputStream(archive)))) {
+      for (Map.Entry<String, String> entry : entries.entrySet()) {
+        var content = entry.getValue().getBytes(StandardCharsets.UTF_8);
+        var archiveEntry = new TarArchiveEntry(entry.getKey());
+        archiveEntry.setSize(content.length);
+        write(output, archiveEntry, content);
+      }
+    }
+  }
+
+  private static void writeZip(Path archive, Map<String, String> entries) throws IOException {
+    try (var output = new ZipArchiveOutputStream(Files.newOutputStream(archive))) {
+      for (Map.Entry<String, String> entry : entries.entrySet()) {
+        write(output, new ZipArchiveEntry(entry.getKey()),
+            entry.getValue().getBytes(StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+  private static void write(ArchiveOutputStream output, ArchiveEntry entry, byte[] content)
+      throws IOException {
+    output.putArchiveEntry(entry);
+    output.write(content);
+    output.closeArchiveEntry();
+  }
+}
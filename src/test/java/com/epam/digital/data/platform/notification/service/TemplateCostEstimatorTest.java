@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateCostEstimatorTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldWeightAssetsOnTopOfTheirSize() throws IOException {
+    var templateDir = template("email/Welcome", 100);
+    Files.createDirectories(tempDir.resolve("email/Welcome/images"));
+    Files.write(tempDir.resolve("email/Welcome/images/logo.png"), new byte[50]);
+    Files.writeString(tempDir.resolve("email/Welcome/notification.yml"), "title: Welcome");
+
+    assertThat(TemplateCostEstimator.weightedSize(templateDir))
+        .isEqualTo(100 + 50 + TemplateCostEstimator.ASSET_WEIGHT + "title: Welcome".length());
+  }
+
+  @Test
+  void shouldPreferRecordedDurationAndCalibrateSizeEstimates() throws IOException {
+    var published = template("email/Published", 1000);
+    var added = template("email/Added", 3000);
+    var timings = TemplateTimings.load(tempDir.resolve("timings.json"), new ObjectMapper());
+    timings.record("email", "Published", TimeUnit.MILLISECONDS.toNanos(10));
+
+    var estimator = new TemplateCostEstimator(timings, Map.of("email", List.of(published, added)));
+
+    assertThat(estimator.estimateNanos("email", published))
+        .isEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+    assertThat(estimator.estimateNanos("email", added))
+        .isEqualTo(TimeUnit.MILLISECONDS.toNanos(30));
+  }
+
+  @Test
+  void shouldKeepRecordedTimingsAcrossRuns() throws IOException {
+    var file = tempDir.resolve("timings.json");
+    var timings = TemplateTimings.load(file, new ObjectMapper());
+    timings.record("inbox", "Welcome", TimeUnit.MILLISECONDS.toNanos(7));
+    timings.save();
+
+    assertThat(TemplateTimings.load(file, new ObjectMapper()).getNanos("inbox", "Welcome"))
+        .hasValue(TimeUnit.MILLISECONDS.toNanos(7));
+  }
+
+  @Test
+  void shouldBoundMakespanByAverageLoadAndLongestUnit() {
+    assertThat(TemplateCostEstimator.lowerBoundNanos(List.of(4L, 4L, 4L, 4L), 2)).isEqualTo(8);
+    assertThat(TemplateCostEstimator.lowerBoundNanos(List.of(10L, 1L, 1L), 2)).isEqualTo(10);
+    assertThat(TemplateCostEstimator.lowerBoundNanos(List.of(), 2)).isZero();
+  }
+
+  private TemplateDirectory template(String path, int contentSize) throws IOException {
+    var dir = Files.createDirectories(tempDir.resolve(path));
+    Files.write(dir.resolve("notification.ftlh"), new byte[contentSize]);
+    return TemplateDirectory.of(dir.toFile());
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.properties.EmailTemplateProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateDigestCalculatorTest {
+
+  @TempDir
+  Path tempDir;
+
+  private final EmailTemplateProperties emailTemplateProperties = new EmailTemplateProperties();
+
+  @Test
+  void shouldChangeWhenSharedStylesheetOrImageChanges() throws IOException {
+    var templateDir = Files.createDirectories(tempDir.resolve("email/Welcome/css"));
+    Files.writeString(templateDir.resolve("welcome.css"),
+        ".logo { background: url('../../shared/logo.png'); }");
+    Files.writeString(tempDir.resolve("email/Welcome/notification.ftlh"),
+        "<link href=\"../../shared/brand.css\"><link href=\"welcome.css\">");
+    Files.createDirectories(tempDir.resolve("email/shared"));
+    Files.writeString(tempDir.resolve("email/shared/brand.css"), "p { color: red; }");
+    Files.writeString(tempDir.resolve("email/shared/logo.png"), "logo");
+    var calculator = new TemplateDigestCalculator(emailTemplateProperties);
+    var template = TemplateDirectory.of(tempDir.resolve("email/Welcome").toFile());
+
+    var digest = calculator.calculate("email", template);
+    Files.writeString(tempDir.resolve("email/shared/brand.css"), "p { color: blue; }");
+    var digestOfChangedStylesheet = calculator.calculate("email", template);
+    Files.writeString(tempDir.resolve("email/shared/logo.png"), "new logo");
+    var digestOfChangedImage = calculator.calculate("email", template);
+
+    assertThat(digest).isNotEqualTo(digestOfChangedStylesheet);
+    assertThat(digestOfChangedStylesheet).isNotEqualTo(digestOfChangedImage);
+    assertThat(calculator.calculate("email", template)).isEqualTo(digestOfChangedImage);
+  }
+
+  @Test
+  void shouldChangeWithEmailProcessingSettings() throws IOException {
+    var templateDir = Files.createDirectories(tempDir.resolve("email/Welcome"));
+    Files.writeString(templateDir.resolve("notification.ftlh"), "<p>Welcome</p>");
+    var template = TemplateDirectory.of(templateDir.toFile());
+    var digest = new TemplateDigestCalculator(emailTemplateProperties)
+        .calculate("email", template);
+
+    emailTemplateProperties.setMinify(true);
+    var minifiedDigest = new TemplateDigestCalculator(emailTemplateProperties)
+        .calculate("email", template);
+    emailTemplateProperties.getCssPruning().setEnabled(true);
+    var prunedDigest = new TemplateDigestCalculator(emailTemplateProperties)
+        .calculate("email", template);
+
+    assertThat(digest).isNotEqualTo(minifiedDigest);
+    assertThat(minifiedDigest).isNotEqualTo(prunedDigest);
+    assertThat(new TemplateDigestCalculator(emailTemplateProperties).calculate("inbox", template))
+        .isEqualTo(new TemplateDigestCalculator(new EmailTemplateProperties())
+            .calculate("inbox", template));
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TemplateShardTest {
+
+  @Test
+  void shouldParseShardArgument() {
+    var shard = TemplateShard.parse("2/4");
+
+    assertThat(shard.getIndex()).isEqualTo(2);
+    assertThat(shard.getCount()).isEqualTo(4);
+    assertThat(shard.isSharded()).isTrue();
+    assertThat(TemplateShard.parse("0/1")).isSameAs(TemplateShard.ALL);
+  }
+
+  @Test
+  void shouldRejectInvalidShards() {
+    assertThatThrownBy(() -> TemplateShard.parse("4/4"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> TemplateShard.parse("1/0"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> TemplateShard.parse("1"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("expected index/count");
+  }
+
+  @Test
+  void shouldAssignEveryTemplateToExactlyOneShard() {
+    var shards = IntStream.range(0, 4)
+        .mapToObj(index -> TemplateShard.of(index, 4))
+        .toArray(TemplateShard[]::new);
+    var perShard = new int[4];
+
+    for (int i = 0; i < 1000; i++) {
+      var templateName = "Template" + i;
+      var owners = 0;
+      for (TemplateShard shard : shards) {
+        if (shard.owns("email", templateName)) {
+          owners++;
+          perShard[shard.getIndex()]++;
+        }
+      }
+      assertThat(owners).isEqualTo(1);
+    }
+    for (int count : perShard) {
+      assertThat(count).isBetween(200, 300);
+    }
+  }
+
+  @Test
+  void shouldAssignWholeChannelToOneShard() {
+    var owners = IntStream.range(0, 4)
+        .filter(index -> TemplateShard.of(index, 4).ownsChannel("email"))
+        .count();
+
+    assertThat(owners).isEqualTo(1);
+    assertThat(TemplateShard.ALL.ownsChannel("email")).isTrue();
+  }
+
+  @Test
+  void shouldAddShardIndexToFileName() {
+    var shard = TemplateShard.of(1, 3);
+
+    assertThat(shard.fileName("publish-manifest.json")).isEqualTo("publish-manifest-shard-1.json");
+    assertThat(shard.fileName("state.d/journal")).isEqualTo("state.d/journal-shard-1");
+    assertThat(TemplateShard.ALL.fileName("publish-manifest.json"))
+        .isEqualTo("publish-manifest.json");
+  }
+}
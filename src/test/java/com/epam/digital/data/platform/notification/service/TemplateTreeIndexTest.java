@@ -0,0 +1,74 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.ResourceUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TemplateTreeIndexTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldIndexChannelsTemplatesAndFiles() throws IOException {
+    var index = TemplateTreeIndex.scan(
+        ResourceUtils.getFile("classpath:notifications").toPath());
+
+    assertThat(index.getChannels()).containsOnlyKeys("diia", "email", "inbox");
+    assertThat(index.getChannels().get("email")).extracting(TemplateDirectory::getName)
+        .containsExactly("RequestAppliedNotification", "SendEmailNotification",
+            "SendEmailNotificationWithMetadata");
+    assertThat(index.getTemplateCount()).isEqualTo(5);
+    var template = index.getChannels().get("email").get(1);
+    assertThat(template.getFiles()).extracting(TemplateFile::getPath)
+        .containsExactly("css/style.css", "images/ua.png", "notification.ftlh");
+    assertThat(template.getFile("images/ua.png")).get()
+        .extracting(TemplateFile::getSize)
+        .isEqualTo(Files.size(ResourceUtils.getFile(
+            "classpath:notifications/email/SendEmailNotification/images/ua.png").toPath()));
+  }
+
+  @Test
+  void shouldAnswerLookupsFromIndexAndReadSharedFilesFromDisk() throws IOException {
+    var templateDir = Files.createDirectories(tempDir.resolve("email/Welcome"));
+    Files.writeString(templateDir.resolve("notification.ftlh"), "<p>Welcome</p>");
+    Files.writeString(Files.createDirectories(tempDir.resolve("email/shared"))
+        .resolve("style.css"), "p {}", StandardCharsets.UTF_8);
+    Files.writeString(tempDir.resolve("email/correctResult.ftlh"), "not a template");
+    var index = TemplateTreeIndex.scan(tempDir);
+
+    Files.writeString(templateDir.resolve("notification.yml"), "title: Welcome");
+    var template = index.getChannels().get("email").get(0);
+
+    assertThat(template.getName()).isEqualTo("Welcome");
+    assertThat(template.getFile("notification.yml")).isEmpty();
+    assertThat(template.getRequiredFile("./notification.ftlh").readString())
+        .isEqualTo("<p>Welcome</p>");
+    assertThat(template.getFile("../shared/style.css")).isPresent();
+    assertThat(template.getRequiredFile("../shared/style.css").readString()).isEqualTo("p {}");
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.model.PublishingPhase;
+import com.epam.digital.data.platform.notification.model.TemplateFailure;
+import com.epam.digital.data.platform.notification.properties.EmailTemplateProperties;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.ResourceUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TemplateValidatorTest {
+
+  private final TemplateValidator templateValidator =
+      new TemplateValidator(new YAMLMapper(), new EmailTemplateProperties());
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldAcceptValidTemplates() throws FileNotFoundException {
+    assertThat(templateValidator.validate(NotificationChannel.EMAIL,
+        getFile("notifications/email/SendEmailNotificationWithMetadata"))).isEmpty();
+    assertThat(templateValidator.validate(NotificationChannel.INBOX,
+        getFile("notifications/inbox/SendInboxNotificationWithMetadata"))).isEmpty();
+    assertThat(templateValidator.validate(NotificationChannel.DIIA,
+        getFile("notifications/diia/SendDiiaNotificationWithMetadata"))).isEmpty();
+  }
+
+  @Test
+  void shouldResolveSharedAssetsInDirectoryAndArchiveAlike() throws IOException {
+    var content = "<html><body><img src=\"../shared/logo.png\"/></body></html>";
+    var templateDir = Files.createDirectories(tempDir.resolve("email/Welcome"));
+    Files.writeString(templateDir.resolve("notification.ftlh"), content);
+    Files.writeString(Files.createDirectories(tempDir.resolve("email/shared"))
+        .resolve("logo.png"), "png");
+    var archive = tempDir.resolve("templates.tgz");
+    TemplateArchiveReaderTest.writeTarGz(archive, Map.of(
+        "email/Welcome/notification.ftlh", content,
+        "email/shared/logo.png", "png"));
+
+    assertThat(templateValidator.validate(NotificationChannel.EMAIL,
+        TemplateDirectory.of(templateDir.toFile()))).isEmpty();
+    try (var index = new TemplateArchiveReader(1024).read(archive)) {
+      assertThat(templateValidator.validate(NotificationChannel.EMAIL,
+          index.getChannels().get("email").get(0))).isEmpty();
+    }
+  }
+
+  @Test
+  void shouldReportBrokenFreeMarkerSource() throws IOException {
+    var templateDir = createTemplate("notification.ftlh",
+        "<html><body>[#list requests as request]<p>[=request.id]</p></body></html>");
+
+    assertThat(templateValidator.validate(NotificationChannel.EMAIL,
+        TemplateDirectory.of(templateDir.toFile())))
+        .singleElement()
+        .extracting(TemplateFailure::getPhase)
+        .isEqualTo(PublishingPhase.PARSE);
+  }
+
+  @Test
+  void shouldReportMissingAssets() throws IOException {
+    var templateDir = createTemplate("notification.ftlh", "<html><head>"
+        + "<link rel=\"stylesheet\" href=\"missing.css\"></head>"
+        + "<body><img src=\"images/missing.png\"/></body></html>");
+
+    assertThat(templateValidator.validate(NotificationChannel.EMAIL,
+        TemplateDirectory.of(templateDir.toFile())))
+        .extracting(TemplateFailure::getPhase, TemplateFailure::getMessage)
+        .containsExactlyInAnyOrder(
+            tuple(PublishingPhase.EMBED,
+                "Image \"images/missing.png\" not found"),
+            tuple(PublishingPhase.EMBED,
+                "Stylesheet \"missing.css\" not found"));
+  }
+
+  @Test
+  void shouldReportMetadataNotMatchingSchema() throws IOException {
+    var templateDir = createTemplate("notification.ftl", "Hello, ${name}");
+    Files.writeString(templateDir.resolve("notification.yml"),
+        "title: Title\nattributes:\n  nested:\n    key: value\nunknown: field\n",
+        StandardCharsets.UTF_8);
+
+    var problems = templateValidator.validate(NotificationChannel.INBOX,
+        TemplateDirectory.of(templateDir.toFile()));
+
+    assertThat(problems).singleElement().satisfies(problem -> {
+      assertThat(problem.getPhase()).isEqualTo(PublishingPhase.METADATA);
+      assertThat(problem.getMessage()).contains("nested").contains("unknown");
+    });
+  }
+
+  @Test
+  void shouldReportMissingContentFile() {
+    assertThat(templateValidator.validate(NotificationChannel.DIIA,
+        TemplateDirectory.of(tempDir.toFile())))
+        .singleElement()
+        .extracting(TemplateFailure::getPhase)
+        .isEqualTo(PublishingPhase.READ);
+  }
+
+  private Path createTemplate(String fileName, String content) throws IOException {
+    var templateDir = Files.createDirectory(tempDir.resolve("Template"));
+    Files.writeString(templateDir.resolve(fileName), content, StandardCharsets.UTF_8);
+    return templateDir;
+  }
+
+  private static TemplateDirectory getFile(String path) throws FileNotFoundException {
+    return TemplateDirectory.of(ResourceUtils.getFile("classpath:" + path));
+  }
+}
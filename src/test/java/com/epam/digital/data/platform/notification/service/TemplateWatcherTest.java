@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.notification.service;
+
+import com.epam.digital.data.platform.notification.properties.AppProperties;
+import com.epam.digital.data.platform.notification.properties.PublishingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class TemplateWatcherTest {
+
+  @TempDir
+  Path root;
+
+  private final NotificationPublishingService publishingService =
+      mock(NotificationPublishingService.class);
+  private Thread watcherThread;
+
+  @BeforeEach
+  void createTemplates() throws IOException {
+    createFile("email/Welcome/notification.ftlh",
+        "<link rel=\"stylesheet\" href=\"../../../shared/brand.css\">"
+            + "<img src=\"images/logo.png\"/>");
+    createFile("email/Welcome/images/logo.png", "png");
+    createFile("email/Goodbye/notification.ftlh", "<p>Goodbye</p>");
+    createFile("email/Goodbye/notification.yml", "title: Goodbye");
+    createFile("inbox/Welcome/notification.ftl", "Welcome");
+    createFile("email/Goodbye/images/logo.png", "png");
+    createFile("shared/brand.css", "p { background: url('./fonts/../brand.png'); }");
+    createFile("shared/brand.png", "png");
+  }
+
+  @AfterEach
+  void stopWatcher() throws InterruptedException {
+    if (watcherThread != null) {
+      watcherThread.interrupt();
+      watcherThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+  }
+
+  @Test
+  void shouldMapChangedFilesToTheirTemplates() throws IOException {
+    assertThat(affectedBy("email/Goodbye/notification.yml")).containsExactly("email/Goodbye");
+    assertThat(affectedBy("email/Welcome/images/logo.png")).containsExactly("email/Welcome");
+    assertThat(affectedBy("inbox/Welcome")).containsExactly("inbox/Welcome");
+  }
+
+  @Test
+  void shouldMapSharedFilesToReferencingTemplates() throws IOException {
+    assertThat(affectedBy("shared/brand.css")).containsExactly("email/Welcome");
+    assertThat(affectedBy("shared/brand.png")).containsExactly("email/Welcome");
+  }
+
+  @Test
+  void shouldNotMapFilesOfTheSameNameToReferencingTemplates() throws IOException {
+    assertThat(affectedBy("email/Goodbye/images/logo.png")).containsExactly("email/Goodbye");
+    assertThat(affectedBy("shared/logo.png")).isEmpty();
+  }
+
+  @Test
+  void shouldRepublishAllTemplatesOfChannelWhenChannelDirectoryChanges() throws IOException {
+    assertThat(affectedBy("email")).containsExactly("email/Goodbye", "email/Welcome");
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldRepublishOnlyChangedTemplate() throws Exception {
+    startWatcher();
+
+    Files.writeString(root.resolve("email/Goodbye/notification.ftlh"), "<p>See you</p>");
+    Files.writeString(root.resolve("email/Goodbye/notification.yml"), "title: See you");
+
+    ArgumentCaptor<BiPredicate<String, TemplateDirectory>> filter =
+        ArgumentCaptor.forClass(BiPredicate.class);
+    verify(publishingService, timeout(5000)).publish(eq(false), filter.capture());
+    assertThat(filter.getValue().test("email", templateDir("email/Goodbye"))).isTrue();
+    assertThat(filter.getValue().test("email", templateDir("email/Welcome"))).isFalse();
+    assertThat(filter.getValue().test("inbox", templateDir("inbox/Welcome"))).isFalse();
+  }
+
+  @Test
+  void shouldWatchTemplateDirectoriesCreatedWhileWatching() throws Exception {
+    startWatcher();
+
+    createFile("inbox/Reminder/notification.ftl", "Reminder");
+
+    verify(publishingService, timeout(5000)).publish(eq(false), any());
+  }
+
+  private Set<String> affectedBy(String changedFile) throws IOException {
+    return TemplateWatcher.getAffectedTemplates(root, TemplateTreeIndex.scan(root),
+        Set.of(root.resolve(changedFile)));
+  }
+
+  private void startWatcher() throws InterruptedException {
+    var appProperties = new AppProperties();
+    appProperties.setNotificationsDirectoryName(root.toString());
+    var publishingProperties = new PublishingProperties();
+    publishingProperties.getWatch().setDebounce(Duration.ofMillis(100));
+    var watcher = new TemplateWatcher(appProperties, publishingProperties, publishingService);
+    watcherThread = new Thread(() -> {
+      try {
+        watcher.watch();
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    watcherThread.start();
+    // give the watcher time to register the tree before changing it
+    TimeUnit.MILLISECONDS.sleep(500);
+  }
+
+  private TemplateDirectory templateDir(String path) {
+    return TemplateDirectory.of(root.resolve(path).toFile());
+  }
+
+  private void createFile(String path, String content) throws IOException {
+    var file = root.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, content);
+  }
+}
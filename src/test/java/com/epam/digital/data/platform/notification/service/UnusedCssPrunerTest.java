@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.notification.service;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnusedCssPrunerTest {
+
+  private final PublishingStatistics statistics = new PublishingStatistics();
+  private final UnusedCssPruner pruner = new UnusedCssPruner(List.of("^\\.status-"), statistics);
+
+  @Test
+  void shouldDropRulesNotMatchingTemplate() {
+    var document = Jsoup.parse("<html><body><table class=\"report\"><tr><td>[=value]</td></tr>"
+        + "</table><a href=\"#\" class=\"link\">link</a></body></html>");
+    var css = "/* shared */\n"
+        + ".report td { padding: 4px; }\n"
+        + ".invoice, .link:hover { color: red; }\n"
+        + ".footer p { margin: 0; }\n"
+        + ".status-approved { color: green; }\n"
+        + "@media (max-width: 600px) { .footer { display: none; } }\n"
+        + "td::before { content: \"{\"; }\n";
+
+    var pruned = pruner.prune(css, document);
+
+    assertThat(pruned).isEqualTo("/* shared */\n"
+        + ".report td { padding: 4px; }\n"
+        + ".link:hover { color: red; }\n"
+        + "\n"
+        + ".status-approved { color: green; }\n"
+        + "@media (max-width: 600px) { .footer { display: none; } }\n"
+        + "td::before { content: \"{\"; }\n");
+    assertThat(statistics.snapshot().get(UnusedCssPruner.BYTES_REMOVED_COUNTER))
+        .isEqualTo(css.length() - pruned.length());
+  }
+}